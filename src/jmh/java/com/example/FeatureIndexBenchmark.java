@@ -0,0 +1,90 @@
+package com.example;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Feature checks by key on a snapshot compared with checks by id on a
+ * {@link FeatureIndex} and on {@link LicenseConstraints}. With
+ * {@code -prof gc}, the index and constraint benchmarks report
+ * {@code gc.alloc.rate.norm} of 0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureIndexBenchmark {
+
+    private LicenseSnapshot snapshot;
+    private FeatureIndex index;
+    private int edition;
+    private int core32;
+    private int cores;
+    private LicenseConstraints constraints;
+    private int version;
+    private int coreLimit;
+
+    @Setup
+    public void setUp() {
+        snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, LicenseFixtures.FEATURES, LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis());
+        FeatureSchema schema = FeatureSchema.of("my-product-edition", "my-product-core-32");
+        index = schema.compile(snapshot);
+        edition = schema.id("my-product-edition");
+        core32 = schema.id("my-product-core-32");
+        cores = Runtime.getRuntime().availableProcessors();
+        ConstraintSchema constraintSchema = ConstraintSchema.builder()
+                .versionAtMost("my-product-version")
+                .numericAtMost("my-product-core-32")
+                .build();
+        constraints = constraintSchema.compile(snapshot);
+        version = constraintSchema.id("my-product-version");
+        coreLimit = constraintSchema.id("my-product-core-32");
+    }
+
+    @Benchmark
+    public boolean snapshotEdition() {
+        return "Professional".equals(snapshot.feature("my-product-edition"));
+    }
+
+    @Benchmark
+    public boolean snapshotCoreLimit() {
+        String limit = snapshot.feature("my-product-core-32");
+        return limit != null && cores <= Integer.parseInt(limit);
+    }
+
+    @Benchmark
+    public boolean indexEdition() {
+        return index.valueEquals(edition, "Professional");
+    }
+
+    @Benchmark
+    public boolean indexEnabled() {
+        return index.enabled(edition);
+    }
+
+    @Benchmark
+    public boolean indexCoreLimit() {
+        return index.withinLimit(core32, cores);
+    }
+
+    @Benchmark
+    public boolean constraintVersion() {
+        return constraints.test(version, "1.10");
+    }
+
+    @Benchmark
+    public boolean constraintCoreLimit() {
+        return constraints.test(coreLimit, cores);
+    }
+}
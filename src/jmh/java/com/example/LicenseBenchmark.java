@@ -0,0 +1,127 @@
+package com.example;
+
+import com.license4j.License;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the License calls made on every request in production.
+ *
+ * <p>
+ * Calls which stay local ({@code getBuilder().build()}, {@code getStatus()},
+ * {@code getFeature(...)}, {@code getCPUCoreCount()}) are measured on
+ * {@code License.getInstance()}. Calls which go to the license server are
+ * measured through {@link StandInLicenseClient} against a
+ * {@link LicenseServerStandIn}, since the library always talks to the real
+ * server.</p>
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}; add
+ * {@code -Djmh.args="-t 8 -bm thrpt -prof gc"} for multi-threaded
+ * throughput.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseBenchmark {
+
+    private LicenseServerStandIn server;
+    private LicenseClient client;
+    private CachedLicenseStatus cachedStatus;
+    private LicenseClient prevalidating;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = LicenseServerStandIn.withExampleFixtures();
+        client = new StandInLicenseClient(server, LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .customFingerprint("BENCHMARK-FINGERPRINT")
+                .storage(new MemoryLicenseStorage())
+                .build());
+        prevalidating = new PrevalidatingLicenseClient(client);
+        cachedStatus = new CachedLicenseStatus(client);
+        cachedStatus.validate(LicenseFixtures.KEY_FEATURES);
+
+        License.getInstance().getBuilder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.invalidate();
+        server.close();
+    }
+
+    @Benchmark
+    public void libraryBuild() {
+        License.getInstance().getBuilder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .build();
+    }
+
+    @Benchmark
+    public boolean libraryGetStatus() {
+        return License.getInstance().getStatus().isValid();
+    }
+
+    @Benchmark
+    public Object libraryGetFeature() {
+        return License.getInstance().getLicenseInformation().getFeature("AnyFeatureKey");
+    }
+
+    @Benchmark
+    public int libraryCPUCoreCount() {
+        return License.getInstance().getSystemInformation().getCPUCoreCount();
+    }
+
+    @Benchmark
+    public LicenseSnapshot validateKey() {
+        return client.validate(LicenseFixtures.KEY_FEATURES);
+    }
+
+    @Benchmark
+    public LicenseSnapshot validateSaved() {
+        return client.validate();
+    }
+
+    @Benchmark
+    public boolean status() {
+        return client.status().valid();
+    }
+
+    @Benchmark
+    public String feature() {
+        return client.status().feature("AnyFeatureKey");
+    }
+
+    @Benchmark
+    public boolean cachedIsValid() {
+        return cachedStatus.isValid();
+    }
+
+    @Benchmark
+    public String cachedFeature() {
+        return cachedStatus.feature("AnyFeatureKey");
+    }
+
+    @Benchmark
+    public LicenseSnapshot prevalidateMalformedKey() {
+        return prevalidating.validate("ABCDE 12345");
+    }
+}
@@ -0,0 +1,90 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LicenseFileStore} compared with plain {@link Files} reads and writes
+ * of a license file. The plain write is neither atomic nor flushed to disk,
+ * so the difference is the price of crash safety and locking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseFileStoreBenchmark {
+
+    @Param({"2048", "65536"})
+    public int size;
+
+    private Path directory;
+    private Path plainFile;
+    private LicenseFileStore store;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("license-benchmark");
+        plainFile = directory.resolve("plain.l4j");
+        store = new LicenseFileStore(directory.resolve("license.l4j"));
+        data = new byte[size];
+        ThreadLocalRandom.current().nextBytes(data);
+        Files.write(plainFile, data);
+        store.write(data);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] plainRead() throws IOException {
+        return Files.readAllBytes(plainFile);
+    }
+
+    @Benchmark
+    public byte[] storeRead() throws IOException {
+        return store.read();
+    }
+
+    @Benchmark
+    public ByteBuffer storeMap() throws IOException {
+        return store.map();
+    }
+
+    @Benchmark
+    public Path plainWrite() throws IOException {
+        return Files.write(plainFile, data);
+    }
+
+    @Benchmark
+    public void storeWrite() throws IOException {
+        store.write(data);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of {@link LicenseMetrics}: recording alone, and a locally rejected
+ * validation with and without {@link InstrumentedLicenseClient}. Run with
+ * {@code -t 8} to see the cost of contended recording.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseMetricsBenchmark {
+
+    private static final String MALFORMED_KEY = "ABCDE 12345";
+
+    private LicenseMetrics metrics;
+    private LicenseClient plain;
+    private LicenseClient instrumented;
+    private long nanos;
+
+    @Setup
+    public void setUp() {
+        metrics = new LicenseMetrics();
+        plain = new PrevalidatingLicenseClient(new UnreachableLicenseClient());
+        instrumented = new InstrumentedLicenseClient(plain, metrics);
+    }
+
+    @Benchmark
+    public void record() {
+        metrics.record(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.TOTAL, nanos++ & 0xFFFFF);
+    }
+
+    @Benchmark
+    public LicenseSnapshot plainRejection() {
+        return plain.validate(MALFORMED_KEY);
+    }
+
+    @Benchmark
+    public LicenseSnapshot instrumentedRejection() {
+        return instrumented.validate(MALFORMED_KEY);
+    }
+
+    /**
+     * Never reached, keys are rejected before.
+     */
+    private static final class UnreachableLicenseClient implements LicenseClient {
+
+        @Override
+        public LicenseSnapshot validate(String licenseKey) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public LicenseSnapshot validate() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public LicenseSnapshot invalidate() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public LicenseSnapshot status() {
+            return PrevalidatingLicenseClient.REJECTED;
+        }
+    }
+}
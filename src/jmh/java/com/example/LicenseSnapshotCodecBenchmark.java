@@ -0,0 +1,72 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding a snapshot into a reused direct buffer, reading fields through a
+ * {@link LicenseSnapshotCodec.View}, and decoding a full snapshot. With
+ * {@code -prof gc}, {@code encode} and {@code viewedEdition} report
+ * {@code gc.alloc.rate.norm} of 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LicenseSnapshotCodecBenchmark {
+
+    private LicenseSnapshotCodec codec;
+    private LicenseSnapshot snapshot;
+    private byte[] digest;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private LicenseSnapshotCodec.View view;
+    private int edition;
+
+    @Setup
+    public void setUp() throws IOException {
+        FeatureSchema schema = FeatureSchema.of("my-product-edition", "my-product-core-32", "my-product-version", "username");
+        codec = new LicenseSnapshotCodec(schema);
+        snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, LicenseFixtures.FEATURES, LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis());
+        digest = LicenseSnapshotCodec.digest("BENCHMARK-FINGERPRINT");
+        buffer = ByteBuffer.allocateDirect(1024);
+        encoded = ByteBuffer.allocateDirect(1024);
+        codec.encode(snapshot, digest, encoded);
+        encoded.flip();
+        view = codec.view(encoded.duplicate());
+        edition = schema.id("my-product-edition");
+    }
+
+    @Benchmark
+    public int encode() {
+        return codec.encode(snapshot, digest, buffer.clear());
+    }
+
+    @Benchmark
+    public boolean viewedEdition() {
+        return view.valid() && view.fingerprintMatches(digest) && view.featureEquals(edition, "Professional");
+    }
+
+    @Benchmark
+    public LicenseSnapshotCodec.View view() throws IOException {
+        return codec.view(encoded.duplicate());
+    }
+
+    @Benchmark
+    public LicenseSnapshot decode() throws IOException {
+        return codec.decode(encoded.duplicate());
+    }
+}
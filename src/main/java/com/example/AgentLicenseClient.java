@@ -0,0 +1,133 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gets license status from the {@link LicenseAgent} of the host instead of
+ * validating in this process. Requests go over one Unix domain socket
+ * connection, one at a time, which is reconnected if the agent was restarted.
+ * Only status queries and revalidations are then sent again; an activation or
+ * invalidation the agent may already have run fails instead.
+ *
+ * <p>
+ * {@link #validate()} asks the agent to revalidate its saved license, shared
+ * with other clients asking at the same time; {@link #snapshot()} only fetches
+ * the agent's current status. Failures of the agent, e.g. an unreachable
+ * license server, are thrown as {@link UncheckedIOException}.</p>
+ */
+public final class AgentLicenseClient implements LicenseClient, AutoCloseable {
+
+    private final UnixDomainSocketAddress address;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocate(AgentProtocol.MAX_FRAME + 4);
+
+    private SocketChannel channel;
+    private volatile LicenseSnapshot status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+
+    /**
+     * @param socket socket file of the agent
+     */
+    public AgentLicenseClient(Path socket) {
+        this.address = UnixDomainSocketAddress.of(socket);
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        return status = call(AgentProtocol.VALIDATE_KEY, licenseKey);
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        return status = call(AgentProtocol.VALIDATE, null);
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        return status = call(AgentProtocol.INVALIDATE, null);
+    }
+
+    /**
+     * @return current status of the agent, without a validation
+     */
+    public LicenseSnapshot snapshot() {
+        return status = call(AgentProtocol.STATUS, null);
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LicenseSnapshot call(byte operation, String licenseKey) {
+        lock.lock();
+        try {
+            boolean repeatable = operation == AgentProtocol.STATUS || operation == AgentProtocol.VALIDATE;
+            boolean reconnected = channel == null || !repeatable;
+            while (true) {
+                try {
+                    if (channel == null) {
+                        channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                        channel.connect(address);
+                    }
+                    return exchange(operation, licenseKey);
+                } catch (IOException ex) {
+                    disconnect();
+                    if (reconnected) {
+                        throw new UncheckedIOException(ex);
+                    }
+                    // the agent may have been restarted since the last request
+                    reconnected = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LicenseSnapshot exchange(byte operation, String licenseKey) throws IOException {
+        AgentProtocol.begin(buffer).put(operation);
+        if (licenseKey != null) {
+            AgentProtocol.putString(buffer, licenseKey);
+        }
+        AgentProtocol.send(channel, buffer);
+        ByteBuffer response = AgentProtocol.receive(channel, buffer);
+        if (response == null) {
+            throw new IOException("license agent closed the connection");
+        }
+        if (response.get() == AgentProtocol.ERROR) {
+            throw new UncheckedIOException(new IOException("license agent: " + AgentProtocol.getString(response)));
+        }
+        return AgentProtocol.getSnapshot(response);
+    }
+
+    private void disconnect() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException ex) {
+            // already broken
+        }
+        channel = null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary protocol between {@link LicenseAgent} and
+ * {@link AgentLicenseClient}. Every message is a frame of a 4 byte length
+ * followed by the body, big-endian.
+ *
+ * <pre>
+ * request:  version (1 byte), operation (1 byte), [license key]
+ * response: version (1 byte), OK (1 byte), snapshot
+ *           version (1 byte), ERROR (1 byte), message
+ * string:   UTF-8 length (2), UTF-8 bytes
+ * </pre>
+ *
+ * Snapshots are encoded with a {@link LicenseSnapshotCodec} without a feature
+ * schema, so agent and clients need not agree on feature ids.
+ */
+final class AgentProtocol {
+
+    static final byte VERSION = 2;
+
+    static final byte STATUS = 0;
+    static final byte VALIDATE = 1;
+    static final byte VALIDATE_KEY = 2;
+    static final byte INVALIDATE = 3;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /**
+     * Largest frame body, more than any snapshot needs.
+     */
+    static final int MAX_FRAME = 64 * 1024;
+
+    private static final LicenseSnapshotCodec CODEC = new LicenseSnapshotCodec(FeatureSchema.of());
+
+    private AgentProtocol() {
+    }
+
+    /**
+     * Clears the buffer and reserves the frame length.
+     *
+     * @param buffer buffer of at least {@link #MAX_FRAME} + 4 bytes
+     * @return the buffer
+     */
+    static ByteBuffer begin(ByteBuffer buffer) {
+        return buffer.clear().putInt(0).put(VERSION);
+    }
+
+    /**
+     * Fills in the frame length and writes the frame.
+     *
+     * @param channel connected channel
+     * @param buffer frame started with {@link #begin(ByteBuffer)}
+     * @throws IOException if the frame cannot be written
+     */
+    static void send(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.putInt(0, buffer.position() - 4).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads one frame.
+     *
+     * @param channel connected channel
+     * @param buffer buffer of at least {@link #MAX_FRAME} + 4 bytes
+     * @return the buffer positioned after the version, or null if the channel
+     * was closed between frames
+     * @throws IOException if the frame cannot be read or is malformed
+     */
+    static ByteBuffer receive(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(4);
+        if (!fill(channel, buffer, true)) {
+            return null;
+        }
+        int length = buffer.getInt(0);
+        if (length < 1 || length > MAX_FRAME) {
+            throw new IOException("invalid frame length: " + length);
+        }
+        buffer.clear().limit(length);
+        fill(channel, buffer, false);
+        buffer.flip();
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("unsupported protocol version: " + version);
+        }
+        return buffer;
+    }
+
+    static void putSnapshot(ByteBuffer buffer, LicenseSnapshot snapshot) {
+        CODEC.encode(snapshot, null, buffer);
+    }
+
+    static LicenseSnapshot getSnapshot(ByteBuffer buffer) throws IOException {
+        return CODEC.decode(buffer);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("string too long: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static boolean fill(SocketChannel channel, ByteBuffer buffer, boolean endAllowed) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (endAllowed && buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("connection closed within a frame");
+            }
+        }
+        return true;
+    }
+}
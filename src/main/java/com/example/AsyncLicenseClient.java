@@ -0,0 +1,97 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking license operations. Each call runs on its own virtual thread,
+ * so the caller, e.g. application startup, continues while the license server
+ * is contacted, and thousands of concurrent validations do not tie up
+ * platform threads.
+ *
+ * <p>
+ * Cancelling a returned future, or exceeding its deadline, interrupts the
+ * running operation. A deadline completes the future with a
+ * {@link java.util.concurrent.TimeoutException}.</p>
+ */
+public final class AsyncLicenseClient implements AutoCloseable {
+
+    private final LicenseClient client;
+    private final ExecutorService executor;
+
+    /**
+     * @param client client to run operations on, e.g. a
+     * {@link CachedLicenseStatus} to publish the results
+     */
+    public AsyncLicenseClient(LicenseClient client) {
+        this(client, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param client client to run operations on
+     * @param executor executor running the operations, shut down by
+     * {@link #close()}
+     */
+    public AsyncLicenseClient(LicenseClient client, ExecutorService executor) {
+        this.client = client;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<LicenseSnapshot> validateAsync(String licenseKey) {
+        return submit(() -> client.validate(licenseKey), null);
+    }
+
+    public CompletableFuture<LicenseSnapshot> validateAsync(String licenseKey, Duration deadline) {
+        return submit(() -> client.validate(licenseKey), deadline);
+    }
+
+    public CompletableFuture<LicenseSnapshot> validateAsync() {
+        return submit(client::validate, null);
+    }
+
+    public CompletableFuture<LicenseSnapshot> validateAsync(Duration deadline) {
+        return submit(client::validate, deadline);
+    }
+
+    public CompletableFuture<LicenseSnapshot> invalidateAsync() {
+        return submit(client::invalidate, null);
+    }
+
+    public CompletableFuture<LicenseSnapshot> invalidateAsync(Duration deadline) {
+        return submit(client::invalidate, deadline);
+    }
+
+    /**
+     * Stops accepting operations and interrupts running ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<LicenseSnapshot> submit(Supplier<LicenseSnapshot> operation, Duration deadline) {
+        CompletableFuture<LicenseSnapshot> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(operation.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        result.whenComplete((snapshot, ex) -> {
+            if (ex != null) {
+                // cancelled or deadline exceeded, no-op if the operation failed itself
+                task.cancel(true);
+            }
+        });
+        if (deadline != null) {
+            result.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+}
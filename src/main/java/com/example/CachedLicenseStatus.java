@@ -0,0 +1,138 @@
+package com.example;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cached license status for per-request entitlement checks.
+ *
+ * <p>
+ * Validations go through the wrapped {@link LicenseClient} one at a time, and
+ * each result is published as an immutable {@link LicenseSnapshot} through a
+ * single volatile reference. Reads never lock or allocate, so any number of
+ * request threads can check the status concurrently, and always see the
+ * valid flag, code, features and expiry of the same validation.</p>
+ *
+ * <p>
+ * If created with a {@link FeatureSchema}, the features of each snapshot are
+ * also compiled into a {@link FeatureIndex}, published together with it.</p>
+ *
+ * <p>
+ * It is a {@link LicenseClient} itself, so it can be wrapped, e.g. by
+ * {@link AsyncLicenseClient}, and still publish every result.</p>
+ */
+public final class CachedLicenseStatus implements LicenseClient {
+
+    private final LicenseClient client;
+    private final FeatureSchema schema;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Published published;
+
+    public CachedLicenseStatus(LicenseClient client) {
+        this(client, FeatureSchema.of());
+    }
+
+    public CachedLicenseStatus(LicenseClient client, FeatureSchema schema) {
+        this.client = client;
+        this.schema = schema;
+        this.published = new Published(client.status(), schema.compile(client.status()));
+    }
+
+    public LicenseClient client() {
+        return client;
+    }
+
+    /**
+     * @return latest published snapshot
+     */
+    public LicenseSnapshot snapshot() {
+        return published.snapshot;
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return published.snapshot;
+    }
+
+    /**
+     * @return features of the latest snapshot, compiled against the schema
+     * given to the constructor
+     */
+    public FeatureIndex features() {
+        return published.features;
+    }
+
+    public boolean isValid() {
+        return published.snapshot.valid();
+    }
+
+    public int code() {
+        return published.snapshot.code();
+    }
+
+    /**
+     * @param key feature key
+     * @return feature value, or null if the license has no such feature
+     */
+    public String feature(String key) {
+        return published.snapshot.feature(key);
+    }
+
+    public long expiresAt() {
+        return published.snapshot.expiresAt();
+    }
+
+    /**
+     * Validates the given license key and publishes the result.
+     *
+     * @param licenseKey license key
+     * @return published snapshot
+     */
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        writeLock.lock();
+        try {
+            return publish(client.validate(licenseKey));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Validates the saved license and publishes the result.
+     *
+     * @return published snapshot
+     */
+    @Override
+    public LicenseSnapshot validate() {
+        writeLock.lock();
+        try {
+            return publish(client.validate());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the license and publishes the result.
+     *
+     * @return published snapshot
+     */
+    @Override
+    public LicenseSnapshot invalidate() {
+        writeLock.lock();
+        try {
+            return publish(client.invalidate());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private LicenseSnapshot publish(LicenseSnapshot next) {
+        published = new Published(next, schema.compile(next));
+        return next;
+    }
+
+    private record Published(LicenseSnapshot snapshot, FeatureIndex features) {
+    }
+}
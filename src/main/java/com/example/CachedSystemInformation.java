@@ -0,0 +1,83 @@
+package com.example;
+
+import com.license4j.License;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Memoized system information probes. {@code getCPUCoreCount()} and
+ * {@code getOSUserName()} of {@code License.getInstance().getSystemInformation()},
+ * and a custom fingerprint generator, may run system calls or start processes
+ * each time; here each value is computed lazily, at most once, or at most once
+ * per time to live.
+ *
+ * <p>
+ * The fingerprint the library computes itself during build and validate is
+ * not exposed by the library, so it cannot be memoized here; give the cached
+ * {@link #fingerprint()} to {@link LicenseSettings.Builder#customFingerprint}
+ * instead to avoid recomputing it.</p>
+ */
+public final class CachedSystemInformation {
+
+    private final CachedValue<Integer> cpuCoreCount;
+    private final CachedValue<String> osUserName;
+    private final CachedValue<String> fingerprint;
+
+    /**
+     * Computes each value once per process.
+     *
+     * @param fingerprint custom fingerprint generator
+     */
+    public CachedSystemInformation(Supplier<String> fingerprint) {
+        this(() -> License.getInstance().getSystemInformation().getCPUCoreCount(),
+                () -> License.getInstance().getSystemInformation().getOSUserName(),
+                fingerprint,
+                null,
+                TimeSource.SYSTEM);
+    }
+
+    /**
+     * Computes each value once per time to live.
+     *
+     * @param fingerprint custom fingerprint generator
+     * @param ttl time after which values are computed again
+     */
+    public CachedSystemInformation(Supplier<String> fingerprint, Duration ttl) {
+        this(() -> License.getInstance().getSystemInformation().getCPUCoreCount(),
+                () -> License.getInstance().getSystemInformation().getOSUserName(),
+                fingerprint,
+                ttl,
+                TimeSource.SYSTEM);
+    }
+
+    CachedSystemInformation(Supplier<Integer> cpuCoreCount, Supplier<String> osUserName, Supplier<String> fingerprint, Duration ttl, TimeSource time) {
+        this.cpuCoreCount = cache(cpuCoreCount, ttl, time);
+        this.osUserName = cache(osUserName, ttl, time);
+        this.fingerprint = cache(fingerprint, ttl, time);
+    }
+
+    public int cpuCoreCount() {
+        return cpuCoreCount.get();
+    }
+
+    public String osUserName() {
+        return osUserName.get();
+    }
+
+    public String fingerprint() {
+        return fingerprint.get();
+    }
+
+    /**
+     * Discards all values, e.g. after the container was resized.
+     */
+    public void invalidate() {
+        cpuCoreCount.invalidate();
+        osUserName.invalidate();
+        fingerprint.invalidate();
+    }
+
+    private static <T> CachedValue<T> cache(Supplier<T> supplier, Duration ttl, TimeSource time) {
+        return ttl == null ? CachedValue.once(supplier) : CachedValue.expiring(supplier, ttl, time);
+    }
+}
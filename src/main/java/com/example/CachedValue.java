@@ -0,0 +1,107 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lazily computed value, computed at most once, or at most once per time to
+ * live. Reads of a computed value are two volatile reads; concurrent callers
+ * of an expired or invalidated value wait for one computation instead of each
+ * running it. A value whose computation was overtaken by
+ * {@link #invalidate()} is computed again rather than cached.
+ *
+ * @param <T> value type
+ */
+public final class CachedValue<T> {
+
+    private final Supplier<T> supplier;
+    private final long ttlNanos;
+    private final TimeSource time;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Entry<T> entry;
+
+    private CachedValue(Supplier<T> supplier, long ttlNanos, TimeSource time) {
+        this.supplier = supplier;
+        this.ttlNanos = ttlNanos;
+        this.time = time;
+    }
+
+    /**
+     * @param <T> value type
+     * @param supplier computes the value
+     * @return value computed once, until invalidated
+     */
+    public static <T> CachedValue<T> once(Supplier<T> supplier) {
+        return new CachedValue<>(supplier, Long.MAX_VALUE, TimeSource.SYSTEM);
+    }
+
+    /**
+     * @param <T> value type
+     * @param supplier computes the value
+     * @param ttl time after which the value is computed again
+     * @return value computed once per time to live, until invalidated
+     */
+    public static <T> CachedValue<T> expiring(Supplier<T> supplier, Duration ttl) {
+        return expiring(supplier, ttl, TimeSource.SYSTEM);
+    }
+
+    /**
+     * @param <T> value type
+     * @param supplier computes the value
+     * @param ttl time after which the value is computed again
+     * @param time time source measuring the time to live
+     * @return value computed once per time to live, until invalidated
+     */
+    public static <T> CachedValue<T> expiring(Supplier<T> supplier, Duration ttl, TimeSource time) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        return new CachedValue<>(supplier, ttl.toNanos(), time);
+    }
+
+    /**
+     * @return cached value, computed first if missing or expired
+     */
+    public T get() {
+        Entry<T> current = entry;
+        if (current != null && isFresh(current)) {
+            return current.value;
+        }
+        lock.lock();
+        try {
+            current = entry;
+            while (current == null || !isFresh(current)) {
+                long computing = generation.get();
+                T value = supplier.get();
+                current = new Entry<>(value, time.nanoTime(), computing);
+                entry = current;
+            }
+            return current.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the cached value, the next {@link #get()} computes it again.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        entry = null;
+    }
+
+    private boolean isFresh(Entry<T> current) {
+        return current.generation == generation.get()
+                && (ttlNanos == Long.MAX_VALUE || time.nanoTime() - current.computedAt < ttlNanos);
+    }
+
+    /**
+     * @param generation invalidations before the computation started
+     */
+    private record Entry<T>(T value, long computedAt, long generation) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fixed set of features an application checks against its own inputs, such
+ * as the running product version or the CPU core count, each with the kind
+ * of comparison the license grants. Compiling a validated license turns every
+ * licensed value into a {@link FeatureConstraint} once; the resulting
+ * {@link LicenseConstraints} can then be re-evaluated locally whenever an
+ * input changes, e.g. after a container was resized, without another
+ * validation.
+ */
+public final class ConstraintSchema {
+
+    private final FeatureSchema features;
+    private final List<Function<String, FeatureConstraint>> compilers;
+
+    private ConstraintSchema(Builder builder) {
+        this.features = FeatureSchema.of(builder.keys.toArray(String[]::new));
+        this.compilers = List.copyOf(builder.compilers);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param key feature key
+     * @return id of the key, or -1 if it is not part of the schema
+     */
+    public int id(String key) {
+        return features.id(key);
+    }
+
+    /**
+     * @param id feature id
+     * @return feature key
+     */
+    public String key(int id) {
+        return features.key(id);
+    }
+
+    public int size() {
+        return features.size();
+    }
+
+    /**
+     * Compiles the features of a snapshot.
+     *
+     * @param snapshot validated license
+     * @return constraints, allowing no input if the license is not valid
+     */
+    public LicenseConstraints compile(LicenseSnapshot snapshot) {
+        FeatureConstraint[] constraints = new FeatureConstraint[size()];
+        if (snapshot.valid()) {
+            Map<String, String> licensed = snapshot.features();
+            for (int id = 0; id < constraints.length; id++) {
+                String value = licensed.get(key(id));
+                if (value != null) {
+                    constraints[id] = compilers.get(id).apply(value);
+                }
+            }
+        }
+        return new LicenseConstraints(this, snapshot, constraints);
+    }
+
+    /**
+     * Declares the features of a {@link ConstraintSchema}; ids are assigned in
+     * the order of declaration from 0.
+     */
+    public static final class Builder {
+
+        private final List<String> keys = new ArrayList<>();
+        private final List<Function<String, FeatureConstraint>> compilers = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * @param key feature holding the highest licensed version, e.g.
+         * {@code my-product-version}
+         * @return this builder
+         */
+        public Builder versionAtMost(String key) {
+            return add(key, FeatureConstraint::versionAtMost);
+        }
+
+        /**
+         * @param key feature holding a numeric limit, e.g.
+         * {@code my-product-core-32}
+         * @return this builder
+         */
+        public Builder numericAtMost(String key) {
+            return add(key, FeatureConstraint::numericAtMost);
+        }
+
+        /**
+         * @param key feature holding an exact value, e.g. {@code username}
+         * @return this builder
+         */
+        public Builder equalTo(String key) {
+            return add(key, FeatureConstraint::equalTo);
+        }
+
+        /**
+         * @throws IllegalArgumentException if a feature key is declared twice
+         */
+        public ConstraintSchema build() {
+            return new ConstraintSchema(this);
+        }
+
+        private Builder add(String key, Function<String, FeatureConstraint> compiler) {
+            keys.add(key);
+            compilers.add(compiler);
+            return this;
+        }
+    }
+}
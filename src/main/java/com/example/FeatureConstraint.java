@@ -0,0 +1,180 @@
+package com.example;
+
+/**
+ * Typed predicate compiled from one licensed feature value, e.g.
+ * {@code my-product-version=1.99} or {@code my-product-core-32=32}. The
+ * licensed value is parsed once, so each check only parses or compares the
+ * input.
+ */
+public sealed interface FeatureConstraint {
+
+    /**
+     * @param value input, e.g. the running product version
+     * @return true if the license allows the input
+     */
+    boolean test(String value);
+
+    /**
+     * @param limit licensed version, dot separated numbers
+     * @return constraint allowing versions up to and including the limit; if
+     * the limit is not a version, no input is allowed
+     */
+    static FeatureConstraint versionAtMost(String limit) {
+        return new VersionAtMost(limit);
+    }
+
+    /**
+     * @param limit licensed number
+     * @return constraint allowing numbers up to and including the limit; if
+     * the limit is not a number, no input is allowed
+     */
+    static FeatureConstraint numericAtMost(String limit) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(limit);
+        } catch (NumberFormatException ex) {
+            parsed = Double.NaN;
+        }
+        return new NumericAtMost(parsed);
+    }
+
+    /**
+     * @param expected licensed value
+     * @return constraint allowing only the licensed value
+     */
+    static FeatureConstraint equalTo(String expected) {
+        return new EqualTo(expected);
+    }
+
+    /**
+     * Versions of dot separated numbers, compared number by number, so that
+     * {@code 1.10} is after {@code 1.9}, and missing trailing numbers count as
+     * 0. Inputs are parsed in place, without allocating.
+     */
+    final class VersionAtMost implements FeatureConstraint {
+
+        private final String limit;
+        private final int[] parts;
+
+        private VersionAtMost(String limit) {
+            this.limit = limit;
+            this.parts = parse(limit);
+        }
+
+        /**
+         * @param version version, e.g. {@code 1.1}
+         * @return true if the version is well formed and not after the limit
+         */
+        @Override
+        public boolean test(String version) {
+            int length = version.length();
+            if (parts == null || length == 0) {
+                return false;
+            }
+            int position = 0;
+            for (int segment = 0;; segment++) {
+                long value = 0;
+                if (position < length) {
+                    int start = position;
+                    char c;
+                    while (position < length && (c = version.charAt(position)) >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        if (value > Integer.MAX_VALUE) {
+                            return false;
+                        }
+                        position++;
+                    }
+                    if (position == start) {
+                        return false;
+                    }
+                    if (position < length && (version.charAt(position) != '.' || ++position == length)) {
+                        return false;
+                    }
+                } else if (segment >= parts.length) {
+                    return true;
+                }
+                long bound = segment < parts.length ? parts[segment] : 0;
+                if (value != bound) {
+                    return value < bound;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "version <= " + limit;
+        }
+
+        private static int[] parse(String version) {
+            String[] segments = version.split("\\.", -1);
+            int[] parsed = new int[segments.length];
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].isEmpty() || !segments[i].chars().allMatch(c -> c >= '0' && c <= '9')) {
+                    return null;
+                }
+                try {
+                    parsed[i] = Integer.parseInt(segments[i]);
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+            return parsed;
+        }
+    }
+
+    /**
+     * Numeric limit, e.g. a CPU core count.
+     */
+    final class NumericAtMost implements FeatureConstraint {
+
+        private final double limit;
+
+        private NumericAtMost(double limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * @param value number
+         * @return true if the value does not exceed the limit
+         */
+        public boolean test(double value) {
+            return value <= limit;
+        }
+
+        @Override
+        public boolean test(String value) {
+            try {
+                return test(Double.parseDouble(value));
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "number <= " + limit;
+        }
+    }
+
+    /**
+     * Exact value, e.g. a user name.
+     */
+    final class EqualTo implements FeatureConstraint {
+
+        private final String expected;
+
+        private EqualTo(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        public boolean test(String value) {
+            return expected.equals(value);
+        }
+
+        @Override
+        public String toString() {
+            return "value = " + expected;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example;
+
+import java.util.Map;
+
+/**
+ * License features compiled against a {@link FeatureSchema}. Presence and
+ * boolean values are held in bitsets and numeric values in a primitive array,
+ * so checks by feature id neither look up strings nor allocate.
+ *
+ * <p>
+ * A feature is enabled if it is present and its value is not one of
+ * {@code false}, {@code no}, {@code off} or {@code 0} (ignoring case). A
+ * feature is numeric if its value parses as a number, e.g.
+ * {@code my-product-core-32=32} or {@code my-product-version=1.99}.</p>
+ *
+ * <p>
+ * The id -1, which {@link FeatureSchema#id(String)} returns for keys not in
+ * the schema, is treated as a feature the license does not have.</p>
+ */
+public final class FeatureIndex {
+
+    private final FeatureSchema schema;
+    private final long[] present;
+    private final long[] enabled;
+    private final double[] numbers;
+    private final String[] values;
+
+    FeatureIndex(FeatureSchema schema, Map<String, String> features) {
+        int size = schema.size();
+        this.schema = schema;
+        this.present = new long[(size + 63) >>> 6];
+        this.enabled = new long[present.length];
+        this.numbers = new double[size];
+        this.values = new String[size];
+        for (int id = 0; id < size; id++) {
+            String value = features.get(schema.key(id));
+            numbers[id] = Double.NaN;
+            if (value == null) {
+                continue;
+            }
+            values[id] = value;
+            present[id >>> 6] |= 1L << id;
+            if (isEnabled(value)) {
+                enabled[id >>> 6] |= 1L << id;
+            }
+            try {
+                numbers[id] = Double.parseDouble(value);
+            } catch (NumberFormatException ex) {
+                // not a numeric feature
+            }
+        }
+    }
+
+    public FeatureSchema schema() {
+        return schema;
+    }
+
+    /**
+     * @param id feature id
+     * @return true if the license has the feature
+     */
+    public boolean has(int id) {
+        return id >= 0 && (present[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * @param id feature id
+     * @return true if the license has the feature with a value other than
+     * false, no, off or 0
+     */
+    public boolean enabled(int id) {
+        return id >= 0 && (enabled[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * @param id feature id
+     * @return numeric value of the feature, or NaN if it is missing or not a
+     * number
+     */
+    public double limit(int id) {
+        return id >= 0 ? numbers[id] : Double.NaN;
+    }
+
+    /**
+     * @param id feature id
+     * @param value value to check, e.g. CPU core count
+     * @return true if the feature is numeric and the value does not exceed it
+     */
+    public boolean withinLimit(int id, double value) {
+        return id >= 0 && value <= numbers[id];
+    }
+
+    /**
+     * @param id feature id
+     * @param expected expected value, e.g. product edition
+     * @return true if the feature value equals the expected value
+     */
+    public boolean valueEquals(int id, String expected) {
+        String value = value(id);
+        return value != null && value.equals(expected);
+    }
+
+    /**
+     * @param id feature id
+     * @return feature value, or null if the license has no such feature
+     */
+    public String value(int id) {
+        return id >= 0 ? values[id] : null;
+    }
+
+    private static boolean isEnabled(String value) {
+        return !(value.equalsIgnoreCase("false")
+                || value.equalsIgnoreCase("no")
+                || value.equalsIgnoreCase("off")
+                || value.equals("0"));
+    }
+}
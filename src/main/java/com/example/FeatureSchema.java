@@ -0,0 +1,89 @@
+package com.example;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed set of feature keys an application checks, each assigned an int id.
+ * Ids are looked up once at startup, and used with {@link FeatureIndex} on hot
+ * paths instead of feature keys.
+ */
+public final class FeatureSchema {
+
+    private final List<String> keys;
+    private final Map<String, Integer> ids;
+
+    private FeatureSchema(List<String> keys) {
+        this.keys = List.copyOf(keys);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < this.keys.size(); i++) {
+            if (ids.putIfAbsent(this.keys.get(i), i) != null) {
+                throw new IllegalArgumentException("duplicate feature key: " + this.keys.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param keys feature keys, ids are assigned in the given order from 0
+     * @return schema
+     */
+    public static FeatureSchema of(String... keys) {
+        return new FeatureSchema(List.of(keys));
+    }
+
+    /**
+     * @param key feature key
+     * @return id of the key, or -1 if it is not part of the schema
+     */
+    public int id(String key) {
+        Integer id = ids.get(key);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @param id feature id
+     * @return feature key
+     */
+    public String key(int id) {
+        return keys.get(id);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Compiles the features of a snapshot.
+     *
+     * @param snapshot validated license
+     * @return feature index, empty if the license is not valid
+     */
+    public FeatureIndex compile(LicenseSnapshot snapshot) {
+        return compile(snapshot.valid() ? snapshot.features() : Map.of());
+    }
+
+    /**
+     * Compiles license features. Features not part of the schema are ignored.
+     *
+     * @param features feature keys and values
+     * @return feature index
+     */
+    public FeatureIndex compile(Map<String, String> features) {
+        return new FeatureIndex(this, features);
+    }
+
+    /**
+     * Schemas are equal if they have the same keys in the same order, so they
+     * assign the same ids.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof FeatureSchema other && keys.equals(other.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return keys.hashCode();
+    }
+}
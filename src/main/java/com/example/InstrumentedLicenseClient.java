@@ -0,0 +1,90 @@
+package com.example;
+
+import java.util.function.Supplier;
+
+/**
+ * Records the latency of license operations in {@link LicenseMetrics}.
+ *
+ * <p>
+ * The outermost instance records {@link LicenseMetrics.Phase#TOTAL} and
+ * {@link LicenseMetrics.Phase#LOCAL} time and counts status codes and
+ * failures. Inner instances, e.g. around the client talking to the license
+ * server, record only their phase:</p>
+ *
+ * <pre>
+ * new InstrumentedLicenseClient(
+ *         new PrevalidatingLicenseClient(
+ *                 new InstrumentedLicenseClient(client, metrics, Phase.NETWORK)),
+ *         metrics);
+ * </pre>
+ */
+public final class InstrumentedLicenseClient implements LicenseClient {
+
+    private final LicenseClient client;
+    private final LicenseMetrics metrics;
+    private final LicenseMetrics.Phase phase;
+
+    /**
+     * @param client client to time
+     * @param metrics metrics to record to
+     */
+    public InstrumentedLicenseClient(LicenseClient client, LicenseMetrics metrics) {
+        this(client, metrics, LicenseMetrics.Phase.TOTAL);
+    }
+
+    /**
+     * @param client client to time
+     * @param metrics metrics to record to
+     * @param phase phase the client performs
+     */
+    public InstrumentedLicenseClient(LicenseClient client, LicenseMetrics metrics, LicenseMetrics.Phase phase) {
+        this.client = client;
+        this.metrics = metrics;
+        this.phase = phase;
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        return timed(LicenseMetrics.Operation.VALIDATE, () -> client.validate(licenseKey));
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        return timed(LicenseMetrics.Operation.VALIDATE, client::validate);
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        return timed(LicenseMetrics.Operation.INVALIDATE, client::invalidate);
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return client.status();
+    }
+
+    private LicenseSnapshot timed(LicenseMetrics.Operation operation, Supplier<LicenseSnapshot> call) {
+        if (phase != LicenseMetrics.Phase.TOTAL) {
+            long start = System.nanoTime();
+            try {
+                return call.get();
+            } finally {
+                metrics.record(operation, phase, System.nanoTime() - start);
+            }
+        }
+        long nestedBefore = metrics.nestedNanos();
+        long start = System.nanoTime();
+        try {
+            LicenseSnapshot result = call.get();
+            metrics.count(result.code());
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(operation);
+            throw ex;
+        } finally {
+            long total = System.nanoTime() - start;
+            metrics.record(operation, LicenseMetrics.Phase.TOTAL, total);
+            metrics.record(operation, LicenseMetrics.Phase.LOCAL, total - (metrics.nestedNanos() - nestedBefore));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example;
+
+import com.license4j.License;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link LicenseClient} backed by the {@code License.getInstance()} singleton.
+ *
+ * <p>
+ * The singleton holds one builder configuration and one status, so every
+ * operation reads the result while holding a lock shared by all instances,
+ * and rebuilds the singleton first if it was last built with other settings.
+ * Applications using these clients should not call
+ * {@code License.getInstance().getBuilder()} directly. Features are copied into the
+ * snapshot for the keys given to the builder and the additional keys given
+ * to the constructor.</p>
+ */
+public final class LibraryLicenseClient implements LicenseClient {
+
+    /**
+     * Guards the License singleton. A ReentrantLock rather than synchronized,
+     * so that waiting virtual threads do not pin their carrier threads.
+     */
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    /**
+     * Settings the singleton was last built with, guarded by LOCK.
+     */
+    private static LicenseSettings built;
+
+    private final LicenseSettings settings;
+    private final Set<String> featureKeys;
+    private final LicenseMetrics metrics;
+
+    private volatile LicenseSnapshot status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+
+    /**
+     * @param settings builder configuration
+     * @param featureKeys keys of additional features to copy into snapshots
+     * @throws IllegalArgumentException if the settings have a custom storage,
+     * the library only saves to a file or the registry
+     */
+    public LibraryLicenseClient(LicenseSettings settings, String... featureKeys) {
+        this(settings, null, featureKeys);
+    }
+
+    /**
+     * @param settings builder configuration
+     * @param metrics records the time of {@link LicenseMetrics.Operation#BUILD},
+     * or null
+     * @param featureKeys keys of additional features to copy into snapshots
+     * @throws IllegalArgumentException if the settings have a custom storage,
+     * the library only saves to a file or the registry
+     */
+    public LibraryLicenseClient(LicenseSettings settings, LicenseMetrics metrics, String... featureKeys) {
+        if (settings.hasCustomStorage()) {
+            throw new IllegalArgumentException("license library saves license data itself, use file(...) or registry(...) instead of storage(...)");
+        }
+        this.settings = settings;
+        Set<String> keys = new LinkedHashSet<>(settings.features().keySet());
+        keys.addAll(Set.of(featureKeys));
+        this.featureKeys = Set.copyOf(keys);
+        this.metrics = metrics;
+    }
+
+    public LicenseSettings settings() {
+        return settings;
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        LOCK.lock();
+        try {
+            build(settings, metrics);
+            License.getInstance().validate(licenseKey);
+            return status = snapshot();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        LOCK.lock();
+        try {
+            build(settings, metrics);
+            License.getInstance().validate();
+            return status = snapshot();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        LOCK.lock();
+        try {
+            build(settings, metrics);
+            License.getInstance().invalidate();
+            return status = snapshot();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Validates and invalidates while holding the singleton lock, so that the
+     * invalidation cannot hit a license validated by another client meanwhile.
+     */
+    @Override
+    public LicenseSnapshot check(String licenseKey) {
+        LOCK.lock();
+        try {
+            return LicenseClient.super.check(licenseKey);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    /**
+     * Configures the License singleton, same as
+     * {@code License.getInstance().getBuilder()...build()}, unless it is
+     * already built with the given settings. Must be called holding LOCK.
+     *
+     * @param settings builder configuration
+     * @param metrics records the build time, or null
+     */
+    private static void build(LicenseSettings settings, LicenseMetrics metrics) {
+        if (settings.equals(built)) {
+            return;
+        }
+        long start = System.nanoTime();
+        var builder = License.getInstance().getBuilder().product(settings.productHash());
+        if (settings.file() != null) {
+            builder = builder.file(settings.file());
+        }
+        if (settings.registryKey() != null) {
+            builder = builder.registry(settings.registryKey(), settings.registryValue());
+        }
+        if (settings.customFingerprint() != null) {
+            builder = builder.customFingerprint(settings.customFingerprint());
+        }
+        for (Map.Entry<String, Object> feature : settings.features().entrySet()) {
+            if (feature.getValue() instanceof Integer value) {
+                builder = builder.feature(feature.getKey(), value.intValue());
+            } else {
+                builder = builder.feature(feature.getKey(), String.valueOf(feature.getValue()));
+            }
+        }
+        builder.build();
+        built = settings;
+        if (metrics != null) {
+            metrics.record(LicenseMetrics.Operation.BUILD, LicenseMetrics.Phase.TOTAL, System.nanoTime() - start);
+        }
+    }
+
+    private LicenseSnapshot snapshot() {
+        License license = License.getInstance();
+        var current = license.getStatus();
+        long now = System.currentTimeMillis();
+        if (!current.isValid()) {
+            return LicenseSnapshot.invalid(current.getCode(), now);
+        }
+        Map<String, String> features = new LinkedHashMap<>();
+        for (String key : featureKeys) {
+            var feature = license.getLicenseInformation().getFeature(key);
+            if (feature != null && feature.getValue() != null) {
+                features.put(key, String.valueOf(feature.getValue()));
+            }
+        }
+        // the library has no expiry accessor used in this project, see LicenseSnapshot.NO_EXPIRY
+        return new LicenseSnapshot(true, current.getCode(), features, LicenseSnapshot.NO_EXPIRY, now);
+    }
+}
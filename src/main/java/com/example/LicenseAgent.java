@@ -0,0 +1,250 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Host-local license agent. One process owns the validation of a product,
+ * and serves its status to the other JVMs on the host over a Unix domain
+ * socket, see {@link AgentLicenseClient}. N processes then cost one
+ * activation, one seat and one license server connection.
+ *
+ * <p>
+ * Status queries are answered from the {@link CachedLicenseStatus} without
+ * locking or server traffic. Revalidations requested by several clients at
+ * the same time share one validation. Each connection is served by its own
+ * virtual thread.</p>
+ *
+ * <p>
+ * Where the file system supports POSIX permissions, the socket file and its
+ * directory are made accessible to their owner only.</p>
+ *
+ * <p>
+ * A client invalidating the license invalidates it for all clients.</p>
+ */
+public final class LicenseAgent implements AutoCloseable {
+
+    private final CachedLicenseStatus status;
+    private final Path socket;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<CompletableFuture<LicenseSnapshot>> validation = new AtomicReference<>();
+
+    private ServerSocketChannel server;
+
+    /**
+     * @param status status of the product, validated by this process
+     * @param socket socket file, e.g. {@code ~/.<hash8>/agent.sock}
+     */
+    public LicenseAgent(CachedLicenseStatus status, Path socket) {
+        this.status = status;
+        this.socket = socket.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Binds the socket, replacing a socket file left behind by an agent that
+     * did not shut down, and starts accepting connections. The directory of
+     * the socket is created, or restricted, accessible to its owner only.
+     *
+     * @throws IOException if another agent is running on the socket, or the
+     * socket cannot be bound
+     */
+    public void start() throws IOException {
+        createDirectory(socket.getParent());
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(socket);
+        if (Files.exists(socket)) {
+            try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+                probe.connect(address);
+                throw new IOException("license agent already running at " + socket);
+            } catch (ConnectException ex) {
+                // nobody listening
+                Files.deleteIfExists(socket);
+            }
+        }
+        ServerSocketChannel bound = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            bound.bind(address);
+        } catch (IOException ex) {
+            bound.close();
+            throw ex;
+        }
+        server = bound;
+        try {
+            Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ex) {
+            // not a POSIX file system
+        }
+        Thread.ofPlatform().name("license-agent").daemon().start(this::accept);
+    }
+
+    public Path socket() {
+        return socket;
+    }
+
+    /**
+     * @return number of connected clients
+     */
+    public int connections() {
+        return connections.size();
+    }
+
+    /**
+     * Stops accepting connections, disconnects all clients and deletes the
+     * socket file, if this agent bound it.
+     */
+    @Override
+    public void close() throws IOException {
+        for (SocketChannel connection : connections) {
+            connection.close();
+        }
+        if (server != null) {
+            server.close();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    /**
+     * Creates the directory of the socket, or restricts an existing one, e.g.
+     * {@code ~/.<hash8>} created by {@link LicenseFileStore}, to its owner, so
+     * other users cannot reach the socket before its own permissions are set.
+     *
+     * @throws IOException if the directory cannot be created, or is not owned
+     * by this user and open to others
+     */
+    private static void createDirectory(Path directory) throws IOException {
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+        if (!Files.isDirectory(directory)) {
+            try {
+                Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(ownerOnly));
+            } catch (UnsupportedOperationException ex) {
+                // not a POSIX file system
+                Files.createDirectories(directory);
+            }
+            return;
+        }
+        Set<PosixFilePermission> permissions;
+        try {
+            permissions = Files.getPosixFilePermissions(directory);
+        } catch (UnsupportedOperationException ex) {
+            // not a POSIX file system
+            return;
+        }
+        if (!ownerOnly.containsAll(permissions)) {
+            try {
+                Files.setPosixFilePermissions(directory, ownerOnly);
+            } catch (IOException ex) {
+                throw new IOException("socket directory is accessible to other users: " + directory, ex);
+            }
+        }
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel connection = server.accept();
+                connections.add(connection);
+                Thread.ofVirtual().name("license-agent-connection").start(() -> serve(connection));
+            }
+        } catch (ClosedChannelException ex) {
+            // closed
+        } catch (IOException ex) {
+            // the server socket failed, clients reconnect to the next agent
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        ByteBuffer buffer = ByteBuffer.allocate(AgentProtocol.MAX_FRAME + 4);
+        try (connection) {
+            ByteBuffer request;
+            while ((request = AgentProtocol.receive(connection, buffer)) != null) {
+                LicenseSnapshot snapshot;
+                try {
+                    byte operation = request.get();
+                    snapshot = switch (operation) {
+                        case AgentProtocol.STATUS -> status.snapshot();
+                        case AgentProtocol.VALIDATE -> validate();
+                        case AgentProtocol.VALIDATE_KEY -> status.validate(AgentProtocol.getString(request));
+                        case AgentProtocol.INVALIDATE -> status.invalidate();
+                        default -> throw new IllegalArgumentException("unknown operation: " + operation);
+                    };
+                } catch (RuntimeException ex) {
+                    error(connection, buffer, ex);
+                    continue;
+                }
+                try {
+                    AgentProtocol.putSnapshot(AgentProtocol.begin(buffer).put(AgentProtocol.OK), snapshot);
+                } catch (BufferOverflowException | IllegalArgumentException ex) {
+                    error(connection, buffer, new IllegalStateException("license snapshot too large", ex));
+                    continue;
+                }
+                AgentProtocol.send(connection, buffer);
+            }
+        } catch (IOException ex) {
+            // client gone or sent a malformed frame, drop the connection
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    /**
+     * Revalidates the saved license, or waits for a revalidation another
+     * client already started.
+     */
+    private LicenseSnapshot validate() {
+        CompletableFuture<LicenseSnapshot> running = validation.get();
+        if (running != null) {
+            return join(running);
+        }
+        CompletableFuture<LicenseSnapshot> call = new CompletableFuture<>();
+        if (!validation.compareAndSet(null, call)) {
+            return validate();
+        }
+        try {
+            LicenseSnapshot result = status.validate();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            validation.compareAndSet(call, null);
+        }
+    }
+
+    private static void error(SocketChannel connection, ByteBuffer buffer, RuntimeException ex) throws IOException {
+        Throwable failure = ex instanceof UncheckedIOException && ex.getCause() != null ? ex.getCause() : ex;
+        String message = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName();
+        if (message.length() > 1024) {
+            message = message.substring(0, 1024);
+        }
+        AgentProtocol.putString(AgentProtocol.begin(buffer).put(AgentProtocol.ERROR), message);
+        AgentProtocol.send(connection, buffer);
+    }
+
+    private static LicenseSnapshot join(CompletableFuture<LicenseSnapshot> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
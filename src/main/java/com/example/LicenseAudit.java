@@ -0,0 +1,238 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Checks license keys in bulk, see {@link LicenseClient#check(String)}. Keys
+ * are read one per line; blank lines and lines starting with {@code #} are
+ * skipped. Malformed keys are reported without contacting the license server,
+ * the others are checked on virtual threads, at most {@code concurrency} at a
+ * time. Reading pauses while that many checks are in flight, so memory use
+ * does not depend on the input size.
+ *
+ * <p>
+ * Results are written as they complete, so not in input order; each carries
+ * the line number of its key. CSV output has a header line, JSON output has
+ * one object per line (JSON Lines).</p>
+ */
+public final class LicenseAudit {
+
+    /**
+     * Output format.
+     */
+    public enum Format {
+        CSV, JSON
+    }
+
+    /**
+     * Totals of an audit.
+     *
+     * @param keys number of keys read
+     * @param codes number of keys per status code
+     * @param errors number of keys that could not be checked, e.g. because the
+     * license server could not be reached
+     */
+    public record Summary(long keys, Map<Integer, Long> codes, long errors) {
+
+        public Summary {
+            codes = Map.copyOf(codes);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder().append(keys).append(" keys");
+            new TreeMap<>(codes).forEach((code, count) -> sb.append(", ").append(count).append(' ').append(LicenseCodes.name(code)));
+            return sb.append(", ").append(errors).append(" errors").toString();
+        }
+    }
+
+    private final Supplier<? extends LicenseClient> clients;
+    private final int concurrency;
+    private final Format format;
+
+    /**
+     * @param clients creates a client per key; clients must not share saved
+     * license data unless their {@code check} is atomic, like
+     * {@link LibraryLicenseClient#check(String)}
+     * @param concurrency maximum number of keys checked at the same time
+     * @param format output format
+     */
+    public LicenseAudit(Supplier<? extends LicenseClient> clients, int concurrency, Format format) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+        }
+        this.clients = clients;
+        this.concurrency = concurrency;
+        this.format = format;
+    }
+
+    /**
+     * Checks all keys of the input and writes one result per key.
+     *
+     * @param in license keys, one per line
+     * @param out receives the results, flushed when done
+     * @return totals
+     * @throws IOException if the input cannot be read or the output cannot be
+     * written
+     * @throws InterruptedException if interrupted while waiting for checks
+     */
+    public Summary run(Reader in, Writer out) throws IOException, InterruptedException {
+        Output output = new Output(out);
+        Semaphore permits = new Semaphore(concurrency);
+        long keys = 0;
+        if (format == Format.CSV) {
+            output.write("line,key,valid,code,status,error\n");
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            BufferedReader lines = new BufferedReader(in);
+            String line;
+            long number = 0;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                String key = line.strip();
+                if (key.isEmpty() || key.startsWith("#")) {
+                    continue;
+                }
+                keys++;
+                if (!LicenseKeys.isWellFormed(key)) {
+                    output.result(number, key, PrevalidatingLicenseClient.REJECTED, null);
+                    continue;
+                }
+                permits.acquire();
+                long lineNumber = number;
+                executor.execute(() -> {
+                    try {
+                        output.result(lineNumber, key, clients.get().check(key), null);
+                    } catch (RuntimeException ex) {
+                        output.result(lineNumber, key, null, ex);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        output.flush();
+        return output.summary(keys);
+    }
+
+    /**
+     * Serializes writes from the checking threads.
+     */
+    private final class Output {
+
+        private final Writer out;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Integer, Long> codes = new TreeMap<>();
+
+        private long errors;
+        private IOException failure;
+
+        Output(Writer out) {
+            this.out = out;
+        }
+
+        void result(long line, String key, LicenseSnapshot result, RuntimeException error) {
+            String record;
+            if (format == Format.CSV) {
+                record = line + "," + csv(key) + ","
+                        + (result != null ? result.valid() + "," + result.code() + "," + LicenseCodes.name(result.code()) + "," : ",,ERROR,")
+                        + (error != null ? csv(message(error)) : "") + "\n";
+            } else {
+                record = "{\"line\":" + line + ",\"key\":" + json(key)
+                        + (result != null ? ",\"valid\":" + result.valid() + ",\"code\":" + result.code() + ",\"status\":\"" + LicenseCodes.name(result.code()) + "\"" : ",\"status\":\"ERROR\"")
+                        + (error != null ? ",\"error\":" + json(message(error)) : "") + "}\n";
+            }
+            lock.lock();
+            try {
+                if (result != null) {
+                    codes.merge(result.code(), 1L, Long::sum);
+                } else {
+                    errors++;
+                }
+                write(record);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void write(String text) {
+            lock.lock();
+            try {
+                if (failure == null) {
+                    out.write(text);
+                }
+            } catch (IOException ex) {
+                failure = ex;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() throws IOException {
+            lock.lock();
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                out.flush();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Summary summary(long keys) {
+            lock.lock();
+            try {
+                return new Summary(keys, codes, errors);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static String message(RuntimeException error) {
+        Throwable cause = error instanceof UncheckedIOException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example;
+
+/**
+ * License validation operations, the same ones ExampleTest calls on
+ * {@code License.getInstance()}. Each call returns the resulting status as an
+ * immutable snapshot, so that callers never read a half-updated status.
+ *
+ * <p>
+ * Operations that reach the license server throw
+ * {@link java.io.UncheckedIOException} if the server cannot be reached.</p>
+ */
+public interface LicenseClient {
+
+    /**
+     * Validates (activates) the given license key, and saves the license data
+     * locally if valid.
+     *
+     * @param licenseKey license key
+     * @return validation result
+     */
+    LicenseSnapshot validate(String licenseKey);
+
+    /**
+     * Validates the license saved by a previous {@link #validate(String)}.
+     *
+     * @return validation result
+     */
+    LicenseSnapshot validate();
+
+    /**
+     * Invalidates (deactivates) the license on the license server and removes
+     * the local license data.
+     *
+     * @return status after invalidation
+     */
+    LicenseSnapshot invalidate();
+
+    /**
+     * Validates the given license key and, if valid, invalidates it again so
+     * that it does not keep a usage, e.g. to audit license keys.
+     *
+     * @param licenseKey license key
+     * @return validation result
+     */
+    default LicenseSnapshot check(String licenseKey) {
+        LicenseSnapshot result = validate(licenseKey);
+        if (result.valid()) {
+            invalidate();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the result of the last operation, without any validation.
+     *
+     * @return current status
+     */
+    LicenseSnapshot status();
+}
@@ -0,0 +1,76 @@
+package com.example;
+
+/**
+ * Status codes returned by license validation, as asserted in ExampleTest.
+ */
+public final class LicenseCodes {
+
+    /**
+     * License is valid.
+     */
+    public static final int VALID = 0;
+
+    /**
+     * No license has been validated yet, or it has been invalidated. This code
+     * is local to this project and never returned by the license server.
+     */
+    public static final int NOT_VALIDATED = -1;
+
+    /**
+     * License key has invalid characters, or it is shorter than 10 or longer
+     * than 255 characters.
+     */
+    public static final int INVALID_KEY_FORMAT = 1005;
+
+    /**
+     * System device fingerprint does not match the saved license data.
+     */
+    public static final int FINGERPRINT_MISMATCH = 3003;
+
+    /**
+     * License has expired.
+     */
+    public static final int EXPIRED = 3004;
+
+    /**
+     * A feature given to the builder does not match the license.
+     */
+    public static final int FEATURE_MISMATCH = 3005;
+
+    /**
+     * License key is not found on the license server.
+     */
+    public static final int NOT_FOUND = 3006;
+
+    /**
+     * License, or the product it belongs to, is disabled on the license server.
+     */
+    public static final int DISABLED = 3007;
+
+    /**
+     * Maximum allowed usage of the license has been reached.
+     */
+    public static final int MAX_USAGE_REACHED = 3008;
+
+    private LicenseCodes() {
+    }
+
+    /**
+     * @param code status code
+     * @return name of the constant with the code, or UNKNOWN
+     */
+    public static String name(int code) {
+        return switch (code) {
+            case VALID -> "VALID";
+            case NOT_VALIDATED -> "NOT_VALIDATED";
+            case INVALID_KEY_FORMAT -> "INVALID_KEY_FORMAT";
+            case FINGERPRINT_MISMATCH -> "FINGERPRINT_MISMATCH";
+            case EXPIRED -> "EXPIRED";
+            case FEATURE_MISMATCH -> "FEATURE_MISMATCH";
+            case NOT_FOUND -> "NOT_FOUND";
+            case DISABLED -> "DISABLED";
+            case MAX_USAGE_REACHED -> "MAX_USAGE_REACHED";
+            default -> "UNKNOWN";
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example;
+
+import java.util.Map;
+
+/**
+ * License features compiled against a {@link ConstraintSchema}. Checks by
+ * feature id only compare the input with the precompiled licensed value.
+ * Version checks and numeric checks through {@link #test(int, double)} do not
+ * allocate; numeric checks of strings parse the input.
+ *
+ * <p>
+ * As on the license server, a feature the license does not have does not
+ * restrict the input, while an invalid license allows no input at all. Unlike
+ * the server, which compares versions as decimal numbers, versions are
+ * compared number by number, so {@code 1.100} is after {@code 1.99}.</p>
+ */
+public final class LicenseConstraints {
+
+    private final ConstraintSchema schema;
+    private final boolean valid;
+    private final int code;
+    private final FeatureConstraint[] constraints;
+
+    LicenseConstraints(ConstraintSchema schema, LicenseSnapshot snapshot, FeatureConstraint[] constraints) {
+        this.schema = schema;
+        this.valid = snapshot.valid();
+        this.code = snapshot.code();
+        this.constraints = constraints;
+    }
+
+    public ConstraintSchema schema() {
+        return schema;
+    }
+
+    /**
+     * @param id feature id
+     * @return compiled constraint, or null if the license has no such feature
+     */
+    public FeatureConstraint constraint(int id) {
+        return constraints[id];
+    }
+
+    /**
+     * @param id feature id
+     * @param value input, e.g. the running product version
+     * @return true if the license allows the input
+     */
+    public boolean test(int id, String value) {
+        FeatureConstraint constraint = constraints[id];
+        return valid && (constraint == null || constraint.test(value));
+    }
+
+    /**
+     * @param id feature id
+     * @param value numeric input, e.g. the CPU core count
+     * @return true if the license allows the input
+     */
+    public boolean test(int id, double value) {
+        FeatureConstraint constraint = constraints[id];
+        if (!valid || constraint == null) {
+            return valid;
+        }
+        if (constraint instanceof FeatureConstraint.NumericAtMost limit) {
+            return limit.test(value);
+        }
+        return constraint.test(value == (long) value ? Long.toString((long) value) : Double.toString(value));
+    }
+
+    /**
+     * Checks a set of inputs, e.g. {@link LicenseSettings#features()}. Inputs
+     * not part of the schema are not checked. The result matches a validation
+     * with the same features except for versions whose order as decimal
+     * numbers differs, see above.
+     *
+     * @param inputs feature keys and input values
+     * @return {@link LicenseCodes#VALID}, {@link LicenseCodes#FEATURE_MISMATCH},
+     * or the code of the compiled snapshot if the license is not valid
+     */
+    public int check(Map<String, ?> inputs) {
+        if (!valid) {
+            return code;
+        }
+        for (Map.Entry<String, ?> input : inputs.entrySet()) {
+            int id = schema.id(input.getKey());
+            if (id < 0) {
+                continue;
+            }
+            boolean allowed = input.getValue() instanceof Number number
+                    ? test(id, number.doubleValue())
+                    : test(id, String.valueOf(input.getValue()));
+            if (!allowed) {
+                return LicenseCodes.FEATURE_MISMATCH;
+            }
+        }
+        return LicenseCodes.VALID;
+    }
+}
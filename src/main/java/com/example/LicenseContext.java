@@ -0,0 +1,53 @@
+package com.example;
+
+/**
+ * License state of one product: its builder configuration, its client and its
+ * cached status. Contexts are independent of each other, see
+ * {@link LicenseRegistry}.
+ */
+public final class LicenseContext {
+
+    private final LicenseSettings settings;
+    private final FeatureSchema schema;
+    private final CachedLicenseStatus status;
+
+    LicenseContext(LicenseSettings settings, LicenseClient client, FeatureSchema schema) {
+        this.settings = settings;
+        this.schema = schema;
+        this.status = new CachedLicenseStatus(client, schema);
+    }
+
+    public String productHash() {
+        return settings.productHash();
+    }
+
+    public LicenseSettings settings() {
+        return settings;
+    }
+
+    /**
+     * @return features compiled after each validation
+     */
+    public FeatureSchema schema() {
+        return schema;
+    }
+
+    /**
+     * @return cached status, for per-request checks
+     */
+    public CachedLicenseStatus status() {
+        return status;
+    }
+
+    public LicenseSnapshot validate(String licenseKey) {
+        return status.validate(licenseKey);
+    }
+
+    public LicenseSnapshot validate() {
+        return status.validate();
+    }
+
+    public LicenseSnapshot invalidate() {
+        return status.invalidate();
+    }
+}
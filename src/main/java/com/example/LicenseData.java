@@ -0,0 +1,177 @@
+package com.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * License data saved after a successful validation, signed by the license
+ * server with Ed25519 so that it can be trusted without contacting the
+ * server again, see {@link WarmStartLicenseClient}.
+ *
+ * @param licenseKey validated license key
+ * @param productHash product hash value
+ * @param fingerprint device fingerprint the license was validated for
+ * @param snapshot validation result
+ * @param issuedAt time the server signed the data in epoch milliseconds
+ * @param signature server signature of all other fields
+ */
+public record LicenseData(String licenseKey, String productHash, String fingerprint, LicenseSnapshot snapshot, long issuedAt, byte[] signature) {
+
+    /**
+     * Signature algorithm of license data.
+     */
+    public static final String ALGORITHM = "Ed25519";
+
+    private static final int VERSION = 1;
+
+    public LicenseData {
+        signature = signature.clone();
+    }
+
+    /**
+     * Creates signed license data.
+     *
+     * @param licenseKey validated license key
+     * @param productHash product hash value
+     * @param fingerprint device fingerprint
+     * @param snapshot validation result
+     * @param issuedAt signing time in epoch milliseconds
+     * @param key server private key
+     * @return signed license data
+     * @throws GeneralSecurityException if the data cannot be signed
+     */
+    public static LicenseData sign(String licenseKey, String productHash, String fingerprint, LicenseSnapshot snapshot, long issuedAt, PrivateKey key) throws GeneralSecurityException {
+        LicenseData unsigned = new LicenseData(licenseKey, productHash, fingerprint, snapshot, issuedAt, new byte[0]);
+        Signature signer = Signature.getInstance(ALGORITHM);
+        signer.initSign(key);
+        signer.update(unsigned.payload());
+        return new LicenseData(licenseKey, productHash, fingerprint, snapshot, issuedAt, signer.sign());
+    }
+
+    /**
+     * Reads license data written by {@link #encode()}.
+     *
+     * @param data encoded license data
+     * @return license data, not verified
+     * @throws IOException if the data is truncated or of an unknown version
+     */
+    public static LicenseData decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported license data version " + version);
+        }
+        String licenseKey = in.readUTF();
+        String productHash = in.readUTF();
+        String fingerprint = in.readUTF();
+        boolean valid = in.readBoolean();
+        int code = in.readInt();
+        int featureCount = in.readInt();
+        Map<String, String> features = new LinkedHashMap<>();
+        for (int i = 0; i < featureCount; i++) {
+            features.put(in.readUTF(), in.readUTF());
+        }
+        long expiresAt = in.readLong();
+        long checkedAt = in.readLong();
+        long issuedAt = in.readLong();
+        byte[] signature = new byte[in.readUnsignedShort()];
+        in.readFully(signature);
+        return new LicenseData(licenseKey, productHash, fingerprint,
+                new LicenseSnapshot(valid, code, features, expiresAt, checkedAt), issuedAt, signature);
+    }
+
+    /**
+     * @return license data including the signature, for saving
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writePayload(out);
+            out.writeShort(signature.length);
+            out.write(signature);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checks the signature.
+     *
+     * @param key server public key
+     * @return true if the data was signed with the matching private key and
+     * has not been modified
+     */
+    public boolean verify(PublicKey key) {
+        try {
+            Signature verifier = Signature.getInstance(ALGORITHM);
+            verifier.initVerify(key);
+            verifier.update(payload());
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] signature() {
+        return signature.clone();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LicenseData other
+                && licenseKey.equals(other.licenseKey)
+                && productHash.equals(other.productHash)
+                && fingerprint.equals(other.fingerprint)
+                && snapshot.equals(other.snapshot)
+                && issuedAt == other.issuedAt
+                && Arrays.equals(signature, other.signature);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(licenseKey, productHash, fingerprint, snapshot, issuedAt) * 31 + Arrays.hashCode(signature);
+    }
+
+    private byte[] payload() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writePayload(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writePayload(DataOutputStream out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeUTF(licenseKey);
+        out.writeUTF(productHash);
+        out.writeUTF(fingerprint);
+        out.writeBoolean(snapshot.valid());
+        out.writeInt(snapshot.code());
+        out.writeInt(snapshot.features().size());
+        // sorted, the iteration order of the immutable map differs between JVM runs
+        for (Map.Entry<String, String> feature : new TreeMap<>(snapshot.features()).entrySet()) {
+            out.writeUTF(feature.getKey());
+            out.writeUTF(feature.getValue());
+        }
+        out.writeLong(snapshot.expiresAt());
+        out.writeLong(snapshot.checkedAt());
+        out.writeLong(issuedAt);
+    }
+}
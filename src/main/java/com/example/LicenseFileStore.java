@@ -0,0 +1,262 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Crash-safe license data file shared by several processes.
+ *
+ * <ul>
+ * <li>Writes go to a temporary file in the same directory, which is flushed
+ * to disk and then renamed over the license file, so readers and crashes
+ * never see a partially written file.</li>
+ * <li>{@link #read()} reads the file into an array sized to it in one call;
+ * {@link #map()} maps it into memory for callers that keep the buffer. A
+ * mapping stays valid even if the file is replaced meanwhile, but keeps the
+ * file open until it is garbage collected, which on Windows blocks replacing
+ * or deleting it.</li>
+ * <li>Processes coordinate through {@link FileLock}s on a {@code .lock} file
+ * next to the license file: shared for reads, exclusive for writes and
+ * deletes. Threads of one process coordinate through an in-process lock,
+ * since one JVM cannot hold overlapping file locks.</li>
+ * <li>Only {@link #write(byte[])} creates the directory and the lock file.
+ * Reads of a store that was never written create nothing; reads of a file
+ * without a lock file, e.g. one copied in, read it unlocked, which is safe
+ * since writes replace it atomically.</li>
+ * </ul>
+ */
+public final class LicenseFileStore implements LicenseStorage {
+
+    private static final Map<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    private final Path file;
+    private final Path lockFile;
+    private final ReentrantLock lock;
+
+    /**
+     * @param file license data file, e.g. {@code ~/.<hash8>/license.l4j}
+     */
+    public LicenseFileStore(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+        this.lockFile = this.file.resolveSibling(this.file.getFileName() + ".lock");
+        this.lock = LOCKS.computeIfAbsent(this.file, path -> new ReentrantLock());
+    }
+
+    public Path path() {
+        return file;
+    }
+
+    @Override
+    public String location() {
+        return file.toString().replace('\\', '/');
+    }
+
+    /**
+     * Maps the license file into memory. Prefer {@link #read()} unless the
+     * buffer is kept.
+     *
+     * @return read-only buffer with the file contents, or null if there is no
+     * file
+     * @throws IOException if the file cannot be read
+     */
+    public ByteBuffer map() throws IOException {
+        lock.lock();
+        try (FileChannel lockChannel = openExistingLockFile()) {
+            if (lockChannel != null) {
+                lockChannel.lock(0, Long.MAX_VALUE, true);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return buffer.asReadOnlyBuffer();
+            } catch (NoSuchFileException ex) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the license file.
+     *
+     * @return file contents, or null if there is no file
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public byte[] read() throws IOException {
+        lock.lock();
+        try (FileChannel lockChannel = openExistingLockFile()) {
+            if (lockChannel != null) {
+                lockChannel.lock(0, Long.MAX_VALUE, true);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                byte[] data = new byte[Math.toIntExact(channel.size())];
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        return Arrays.copyOf(data, buffer.position());
+                    }
+                }
+                return data;
+            } catch (NoSuchFileException ex) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the license file.
+     *
+     * @param data new file contents
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void write(byte[] data) throws IOException {
+        lock.lock();
+        try (FileChannel lockChannel = openLockFile()) {
+            lockChannel.lock();
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(data);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            forceDirectory();
+            recordSave(data.clone());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the license file.
+     *
+     * @return false if there was no file
+     * @throws IOException if the file cannot be deleted
+     */
+    @Override
+    public boolean delete() throws IOException {
+        lock.lock();
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            lockChannel.lock();
+            boolean deleted = Files.deleteIfExists(file);
+            forceDirectory();
+            recordSave(null);
+            return deleted;
+        } catch (NoSuchFileException ex) {
+            // no directory, so no file
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action, recording what the calling thread saves to this license
+     * file meanwhile, through this or any other store of the same file.
+     *
+     * @param action action, e.g. a validation saving license data
+     * @return the last save of the action, or null if it saved nothing
+     */
+    Saved recordSaves(Runnable action) {
+        Recording recording = new Recording(file);
+        Recording outer = RECORDING.get();
+        RECORDING.set(recording);
+        try {
+            action.run();
+        } finally {
+            if (outer != null) {
+                RECORDING.set(outer);
+            } else {
+                RECORDING.remove();
+            }
+        }
+        return recording.saved;
+    }
+
+    /**
+     * Contents saved to the license file.
+     *
+     * @param data file contents, or null if the file was deleted
+     */
+    record Saved(byte[] data) {
+    }
+
+    private void recordSave(byte[] data) {
+        Recording recording = RECORDING.get();
+        if (recording != null && recording.file.equals(file)) {
+            recording.saved = new Saved(data);
+        }
+    }
+
+    /**
+     * Opens the lock file, creating it and its directory; locks taken on the
+     * channel are released when it is closed.
+     */
+    private FileChannel openLockFile() throws IOException {
+        Files.createDirectories(file.getParent());
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens the lock file for shared locks.
+     *
+     * @return channel, or null if the license file was never written
+     */
+    private FileChannel openExistingLockFile() throws IOException {
+        try {
+            return FileChannel.open(lockFile, StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Flushes the directory entry of a rename or delete to disk. Not supported
+     * on every platform (e.g. Windows), where it is skipped.
+     */
+    private void forceDirectory() {
+        try (FileChannel directory = FileChannel.open(file.getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException ex) {
+            // directory cannot be opened for sync on this platform
+        }
+    }
+
+    private static final class Recording {
+
+        private final Path file;
+        private Saved saved;
+
+        Recording(Path file) {
+            this.file = file;
+        }
+    }
+}
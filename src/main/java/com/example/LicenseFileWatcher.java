@@ -0,0 +1,181 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revalidates a license when its license file is replaced, changed or
+ * deleted, instead of calling {@code validate()} periodically. An idle
+ * watcher does no disk I/O; it waits for file system events on the directory
+ * of the license file.
+ *
+ * <p>
+ * Bursts of events, e.g. a temporary file renamed over the license file, are
+ * debounced: the license is revalidated once the directory has been quiet for
+ * the debounce time. Events that leave the contents unchanged, including
+ * those caused by the revalidation saving the license data again, do not
+ * trigger a revalidation. Saves of the revalidation through a
+ * {@link LicenseFileStore} are told apart from other writes landing right
+ * after them; other saves, e.g. by the licensing library itself, are taken
+ * as the revalidation's own. If the directory itself disappears, e.g. a
+ * removed USB drive, the license is revalidated and watching stops.</p>
+ *
+ * <p>
+ * Where the platform has no native file notifications, {@link WatchService}
+ * falls back to polling in the JDK.</p>
+ */
+public final class LicenseFileWatcher implements AutoCloseable {
+
+    private final CachedLicenseStatus status;
+    private final LicenseFileStore store;
+    private final long debounceNanos;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private byte[] contents;
+    private volatile boolean watching;
+    private volatile RuntimeException lastFailure;
+
+    /**
+     * @param status status to revalidate and publish to
+     * @param store license file to watch, see {@link LicenseSettings#storage()}
+     * @param debounce quiet time after the last event before revalidating
+     * @throws IOException if the file system cannot be watched
+     */
+    public LicenseFileWatcher(CachedLicenseStatus status, LicenseFileStore store, Duration debounce) throws IOException {
+        if (debounce.isNegative()) {
+            throw new IllegalArgumentException("debounce must not be negative: " + debounce);
+        }
+        this.status = status;
+        this.store = store;
+        this.debounceNanos = debounce.toNanos();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = Thread.ofPlatform()
+                .name("license-file-watcher")
+                .daemon()
+                .unstarted(this::watch);
+    }
+
+    /**
+     * Starts watching, with the current contents of the license file as the
+     * known state.
+     *
+     * @throws IOException if the directory of the license file cannot be
+     * created or watched
+     */
+    public void start() throws IOException {
+        Path directory = store.path().getParent();
+        Files.createDirectories(directory);
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        contents = store.read();
+        watching = true;
+        thread.start();
+    }
+
+    /**
+     * @return true until the watcher is closed or the directory disappeared
+     */
+    public boolean isWatching() {
+        return watching;
+    }
+
+    /**
+     * @return failure of the last revalidation, or null if it succeeded
+     */
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watching = false;
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (watching) {
+                WatchKey key = watchService.take();
+                boolean changed = affectsFile(key);
+                boolean valid = key.reset();
+                while (valid) {
+                    WatchKey next = watchService.poll(debounceNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    changed |= affectsFile(next);
+                    valid = next.reset();
+                }
+                if (!valid || !Files.isDirectory(store.path().getParent())) {
+                    // a deleted directory stays watched while files in it are still open or mapped
+                    watching = false;
+                    revalidate();
+                } else if (changed && contentsChanged()) {
+                    revalidate();
+                }
+            }
+        } catch (ClosedWatchServiceException ex) {
+            // closed
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            watching = false;
+        }
+    }
+
+    private boolean affectsFile(WatchKey key) {
+        Path name = store.path().getFileName();
+        boolean affected = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // an overflow means events were lost
+            affected |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+        }
+        return affected;
+    }
+
+    private boolean contentsChanged() {
+        try {
+            return !Arrays.equals(contents, store.read());
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    private void revalidate() {
+        LicenseFileStore.Saved saved = store.recordSaves(() -> {
+            try {
+                status.validate();
+                lastFailure = null;
+            } catch (RuntimeException ex) {
+                // keep serving the last published snapshot
+                lastFailure = ex;
+            }
+        });
+        if (!watching) {
+            return;
+        }
+        try {
+            byte[] current = store.read();
+            // a write landing after the revalidation's own save is still unknown,
+            // and is revalidated on its events
+            contents = saved == null || Arrays.equals(current, saved.data()) ? current : saved.data();
+        } catch (IOException ex) {
+            lastFailure = new UncheckedIOException(ex);
+            contents = null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+/**
+ * License key format checks.
+ */
+public final class LicenseKeys {
+
+    /**
+     * Minimum license key length.
+     */
+    public static final int MIN_LENGTH = 10;
+
+    /**
+     * Maximum license key length.
+     */
+    public static final int MAX_LENGTH = 255;
+
+    private LicenseKeys() {
+    }
+
+    /**
+     * Checks the license key format in a single pass, without allocating.
+     * Allowed characters are A-Z, 0-9 and -, and the length must be between
+     * {@link #MIN_LENGTH} and {@link #MAX_LENGTH}. Keys failing this check are
+     * rejected by validation with {@link LicenseCodes#INVALID_KEY_FORMAT}.
+     *
+     * @param licenseKey license key, may be null
+     * @return true if the key is well-formed
+     */
+    public static boolean isWellFormed(CharSequence licenseKey) {
+        if (licenseKey == null) {
+            return false;
+        }
+        int length = licenseKey.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = licenseKey.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
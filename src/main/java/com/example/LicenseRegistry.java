@@ -0,0 +1,95 @@
+package com.example;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Independent license contexts keyed by product hash, for processes which
+ * license several products or tenants.
+ *
+ * <p>
+ * Each context has its own settings, client and cached status, and
+ * validations of different products do not lock each other. Contexts created
+ * with the default client factory share the License singleton, so their calls
+ * into the library are still serialized by {@link LibraryLicenseClient}, which
+ * only rebuilds the singleton when the product changes.</p>
+ */
+public final class LicenseRegistry {
+
+    private final Function<LicenseSettings, LicenseClient> clientFactory;
+    private final Map<String, LicenseContext> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry of contexts backed by the License singleton.
+     */
+    public LicenseRegistry() {
+        this(LibraryLicenseClient::new);
+    }
+
+    /**
+     * @param clientFactory creates the client of each registered context
+     */
+    public LicenseRegistry(Function<LicenseSettings, LicenseClient> clientFactory) {
+        this.clientFactory = clientFactory;
+    }
+
+    /**
+     * Registers a product, or returns its context if it has already been
+     * registered with the same settings.
+     *
+     * @param settings builder configuration of the product
+     * @return context of the product
+     * @throws IllegalStateException if the product has been registered with
+     * different settings
+     */
+    public LicenseContext register(LicenseSettings settings) {
+        return register(settings, FeatureSchema.of());
+    }
+
+    /**
+     * Registers a product, or returns its context if it has already been
+     * registered with the same settings.
+     *
+     * @param settings builder configuration of the product
+     * @param schema features compiled after each validation
+     * @return context of the product
+     * @throws IllegalStateException if the product has been registered with
+     * different settings
+     * @throws IllegalArgumentException if the product has been registered
+     * with a different schema, whose ids would not match the caller's
+     */
+    public LicenseContext register(LicenseSettings settings, FeatureSchema schema) {
+        LicenseContext context = contexts.computeIfAbsent(settings.productHash(),
+                productHash -> new LicenseContext(settings, clientFactory.apply(settings), schema));
+        if (!context.settings().equals(settings)) {
+            throw new IllegalStateException("product already registered with different settings: " + settings.productHash());
+        }
+        if (!context.schema().equals(schema)) {
+            throw new IllegalArgumentException("product already registered with a different feature schema: " + settings.productHash());
+        }
+        return context;
+    }
+
+    /**
+     * @param productHash product hash value
+     * @return context of the product, or null if it is not registered
+     */
+    public LicenseContext get(String productHash) {
+        return contexts.get(productHash);
+    }
+
+    /**
+     * @param productHash product hash value
+     * @return removed context, or null if it is not registered
+     */
+    public LicenseContext remove(String productHash) {
+        return contexts.remove(productHash);
+    }
+
+    public Collection<LicenseContext> contexts() {
+        return Collections.unmodifiableCollection(contexts.values());
+    }
+}
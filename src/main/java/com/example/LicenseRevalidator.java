@@ -0,0 +1,139 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revalidates a license in the background, with stale-while-revalidate
+ * semantics: readers of the {@link CachedLicenseStatus} keep getting the last
+ * published snapshot while a revalidation is in flight, and also when it fails
+ * because the license server cannot be reached.
+ *
+ * <p>
+ * The first revalidation happens after a random delay within one interval,
+ * and each following one after the interval randomly shortened or lengthened
+ * by the jitter fraction, so that a fleet of nodes started together does not
+ * hit the license server at the same time.</p>
+ */
+public final class LicenseRevalidator implements AutoCloseable {
+
+    private final CachedLicenseStatus status;
+    private final long intervalNanos;
+    private final double jitter;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    private volatile RuntimeException lastFailure;
+
+    /**
+     * @param status status to revalidate and publish to
+     * @param interval average time between revalidations
+     * @param jitter fraction of the interval, at least 0 and below 1, by which
+     * each delay is randomly shortened or lengthened; 1 would allow delays of
+     * zero
+     */
+    public LicenseRevalidator(CachedLicenseStatus status, Duration interval, double jitter) {
+        this(status, interval, jitter, Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("license-revalidator")
+                .daemon()
+                .factory()));
+    }
+
+    /**
+     * @param status status to revalidate and publish to
+     * @param interval average time between revalidations
+     * @param jitter fraction of the interval, at least 0 and below 1, by which
+     * each delay is randomly shortened or lengthened
+     * @param scheduler scheduler running the revalidations one at a time, e.g.
+     * one that tests step through; shut down by {@link #close()}
+     */
+    public LicenseRevalidator(CachedLicenseStatus status, Duration interval, double jitter, ScheduledExecutorService scheduler) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        if (!(jitter >= 0 && jitter < 1)) {
+            throw new IllegalArgumentException("jitter must be at least 0 and below 1: " + jitter);
+        }
+        this.status = status;
+        this.intervalNanos = interval.toNanos();
+        this.jitter = jitter;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Schedules the first revalidation at a random point within one interval.
+     *
+     * @throws IllegalStateException if already started
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("license revalidator already started");
+        }
+        scheduler.schedule(this::scheduled, ThreadLocalRandom.current().nextLong(intervalNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Starts a revalidation now, in the background, unless one is already in
+     * flight.
+     *
+     * @return false if a revalidation is already in flight
+     */
+    public boolean refreshNow() {
+        if (!inFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        scheduler.execute(this::revalidate);
+        return true;
+    }
+
+    /**
+     * @return true while a revalidation is running
+     */
+    public boolean isRefreshing() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return failure of the last revalidation, or null if it succeeded
+     */
+    public RuntimeException lastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return delay before the next scheduled revalidation in nanoseconds
+     */
+    long nextDelay() {
+        double factor = 1 + jitter * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        return (long) (intervalNanos * factor);
+    }
+
+    private void scheduled() {
+        if (inFlight.compareAndSet(false, true)) {
+            revalidate();
+        }
+        scheduler.schedule(this::scheduled, nextDelay(), TimeUnit.NANOSECONDS);
+    }
+
+    private void revalidate() {
+        try {
+            status.validate();
+            lastFailure = null;
+        } catch (RuntimeException ex) {
+            // keep serving the last published snapshot
+            lastFailure = ex;
+        } finally {
+            inFlight.set(false);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builder configuration of a license, the same values given to
+ * {@code License.getInstance().getBuilder()}.
+ */
+public final class LicenseSettings {
+
+    private final String productHash;
+    private final String file;
+    private final String registryKey;
+    private final String registryValue;
+    private final String customFingerprint;
+    private final LicenseStorage storage;
+    private final Map<String, Object> features;
+
+    private LicenseSettings(Builder builder) {
+        this.productHash = Objects.requireNonNull(builder.productHash, "product hash is required");
+        this.file = builder.file;
+        this.registryKey = builder.registryKey;
+        this.registryValue = builder.registryValue;
+        this.customFingerprint = builder.customFingerprint;
+        this.storage = builder.storage;
+        this.features = Collections.unmodifiableMap(new LinkedHashMap<>(builder.features));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String productHash() {
+        return productHash;
+    }
+
+    /**
+     * @return custom license file location, or null for the default location
+     */
+    public String file() {
+        return file;
+    }
+
+    /**
+     * @return registry key, or null if license data is not saved in registry
+     */
+    public String registryKey() {
+        return registryKey;
+    }
+
+    /**
+     * @return registry value, or null if license data is not saved in registry
+     */
+    public String registryValue() {
+        return registryValue;
+    }
+
+    /**
+     * @return custom fingerprint, or null to use the system fingerprint
+     */
+    public String customFingerprint() {
+        return customFingerprint;
+    }
+
+    /**
+     * Returns the storage given to the builder, or else a
+     * {@link RegistryLicenseStorage} if a registry key is given, or else a
+     * {@link LicenseFileStore} at {@link #saveLocation()}.
+     *
+     * @return storage of the license data
+     */
+    public LicenseStorage storage() {
+        if (storage != null) {
+            return storage;
+        }
+        if (registryKey != null) {
+            return new RegistryLicenseStorage(registryKey, registryValue);
+        }
+        return new LicenseFileStore(Path.of(saveLocation()));
+    }
+
+    /**
+     * @return true if a storage was given to the builder
+     */
+    public boolean hasCustomStorage() {
+        return storage != null;
+    }
+
+    /**
+     * @return features to verify, values are either String or Integer
+     */
+    public Map<String, Object> features() {
+        return features;
+    }
+
+    /**
+     * Returns where {@link #storage()} saves the license data. For license
+     * files, this is the same value returned by
+     * {@code getLicenseInformation().getLicenseDataSaveLocation()}. With a
+     * registry key it is the {@link java.util.prefs.Preferences} path of the
+     * {@link RegistryLicenseStorage}, not the
+     * {@code HKEY_CURRENT_USER\\SOFTWARE\\<key>\\<value>} location the library
+     * itself uses.
+     *
+     * @return location of a custom storage, preferences path, custom file, or
+     * {@code ~/.<last 8 characters of product hash>/license.l4j}
+     */
+    public String saveLocation() {
+        if (storage != null) {
+            return storage.location();
+        }
+        if (registryKey != null) {
+            return new RegistryLicenseStorage(registryKey, registryValue).location();
+        }
+        if (file != null) {
+            return file;
+        }
+        return System.getProperty("user.home").replace('\\', '/')
+                + "/." + productHash.substring(productHash.length() - 8)
+                + "/license.l4j";
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof LicenseSettings other
+                && productHash.equals(other.productHash)
+                && Objects.equals(file, other.file)
+                && Objects.equals(registryKey, other.registryKey)
+                && Objects.equals(registryValue, other.registryValue)
+                && Objects.equals(customFingerprint, other.customFingerprint)
+                && storage == other.storage
+                && features.equals(other.features);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productHash, file, registryKey, registryValue, customFingerprint, System.identityHashCode(storage), features);
+    }
+
+    public static final class Builder {
+
+        private String productHash;
+        private String file;
+        private String registryKey;
+        private String registryValue;
+        private String customFingerprint;
+        private LicenseStorage storage;
+        private final Map<String, Object> features = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder product(String productHash) {
+            this.productHash = productHash;
+            return this;
+        }
+
+        public Builder file(String file) {
+            this.file = file;
+            return this;
+        }
+
+        public Builder registry(String key, String value) {
+            this.registryKey = key;
+            this.registryValue = value;
+            return this;
+        }
+
+        public Builder customFingerprint(String customFingerprint) {
+            this.customFingerprint = customFingerprint;
+            return this;
+        }
+
+        /**
+         * Saves license data in the given storage instead of the file or
+         * registry location. Not supported by {@link LibraryLicenseClient},
+         * since the library saves license data itself.
+         *
+         * @param storage license data storage
+         * @return this builder
+         */
+        public Builder storage(LicenseStorage storage) {
+            this.storage = storage;
+            return this;
+        }
+
+        public Builder feature(String key, String value) {
+            features.put(key, value);
+            return this;
+        }
+
+        public Builder feature(String key, int value) {
+            features.put(key, value);
+            return this;
+        }
+
+        /**
+         * @return settings
+         * @throws NullPointerException if no product hash is given
+         * @throws IllegalArgumentException if the product hash is shorter than
+         * the 8 characters its save location is derived from
+         */
+        public LicenseSettings build() {
+            if (productHash != null && productHash.length() < 8) {
+                throw new IllegalArgumentException("product hash must have at least 8 characters: " + productHash);
+            }
+            return new LicenseSettings(this);
+        }
+    }
+}
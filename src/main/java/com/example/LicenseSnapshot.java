@@ -0,0 +1,47 @@
+package com.example;
+
+import java.util.Map;
+
+/**
+ * Immutable result of a license validation.
+ *
+ * @param valid true if the license is valid
+ * @param code status code, see {@link LicenseCodes}
+ * @param features license features, empty if the license is not valid
+ * @param expiresAt license expiry in epoch milliseconds, or
+ * {@link #NO_EXPIRY}
+ * @param checkedAt time of the validation in epoch milliseconds
+ */
+public record LicenseSnapshot(boolean valid, int code, Map<String, String> features, long expiresAt, long checkedAt) {
+
+    /**
+     * Expiry value of licenses without an end date, or when the expiry is not
+     * known.
+     */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    public LicenseSnapshot {
+        features = Map.copyOf(features);
+    }
+
+    /**
+     * Creates an invalid snapshot with the given status code.
+     *
+     * @param code status code
+     * @param checkedAt time of the validation in epoch milliseconds
+     * @return invalid snapshot without features
+     */
+    public static LicenseSnapshot invalid(int code, long checkedAt) {
+        return new LicenseSnapshot(false, code, Map.of(), NO_EXPIRY, checkedAt);
+    }
+
+    /**
+     * Returns the value of a license feature.
+     *
+     * @param key feature key
+     * @return feature value, or null if the license has no such feature
+     */
+    public String feature(String key) {
+        return features.get(key);
+    }
+}
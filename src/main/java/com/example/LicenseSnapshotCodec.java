@@ -0,0 +1,451 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact, versioned binary encoding of a {@link LicenseSnapshot}, for passing
+ * license status through caches, shared memory or sockets. Encoding writes
+ * straight into a {@link ByteBuffer}, and {@link #view(ByteBuffer)} reads
+ * fields in place, so neither copies the buffer nor allocates per field.
+ *
+ * <pre>
+ * header:  version (1 byte), flags (1), feature count (2), length (4),
+ *          code (4), expiresAt (8), checkedAt (8), fingerprint digest (32)
+ * feature: id (2), [key], value
+ * string:  UTF-8 length (2), UTF-8 bytes
+ * </pre>
+ *
+ * All values are big-endian. Features of the {@link FeatureSchema} are
+ * written by id, other features with id {@code 0xFFFF} followed by their key,
+ * so both sides must use the same schema. The fingerprint digest is the
+ * SHA-256 of the device fingerprint, see {@link #digest(String)}, or zeros if
+ * none was given.
+ */
+public final class LicenseSnapshotCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * Length of a fingerprint digest in bytes.
+     */
+    public static final int DIGEST_LENGTH = 32;
+
+    /**
+     * Encoded length of a snapshot without features.
+     */
+    public static final int HEADER_LENGTH = 60;
+
+    private static final int FLAGS_AT = 1;
+    private static final int COUNT_AT = 2;
+    private static final int LENGTH_AT = 4;
+    private static final int CODE_AT = 8;
+    private static final int EXPIRES_AT = 12;
+    private static final int CHECKED_AT = 20;
+    private static final int DIGEST_AT = 28;
+
+    private static final int VALID = 1;
+    private static final int FINGERPRINT = 2;
+
+    private static final int KEYED = 0xFFFF;
+    private static final int MAX_STRING = 0xFFFF;
+
+    private final FeatureSchema schema;
+
+    /**
+     * @param schema features written by id instead of by key
+     */
+    public LicenseSnapshotCodec(FeatureSchema schema) {
+        if (schema.size() >= KEYED) {
+            throw new IllegalArgumentException("too many features in schema: " + schema.size());
+        }
+        this.schema = schema;
+    }
+
+    public FeatureSchema schema() {
+        return schema;
+    }
+
+    /**
+     * Computes the fingerprint digest once, to be given to every
+     * {@link #encode(LicenseSnapshot, byte[], ByteBuffer)}.
+     *
+     * @param fingerprint device fingerprint
+     * @return SHA-256 of the UTF-8 fingerprint
+     */
+    public static byte[] digest(String fingerprint) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes a snapshot at the position of the buffer, and moves the position
+     * after it.
+     *
+     * @param snapshot snapshot to write
+     * @param fingerprintDigest digest of the device fingerprint, or null
+     * @param buffer target buffer
+     * @return number of bytes written
+     * @throws BufferOverflowException if the buffer is too small, the
+     * position of the buffer is not changed
+     */
+    public int encode(LicenseSnapshot snapshot, byte[] fingerprintDigest, ByteBuffer buffer) {
+        if (fingerprintDigest != null && fingerprintDigest.length != DIGEST_LENGTH) {
+            throw new IllegalArgumentException("fingerprint digest must have " + DIGEST_LENGTH + " bytes: " + fingerprintDigest.length);
+        }
+        if (snapshot.features().size() >= KEYED) {
+            throw new IllegalArgumentException("too many features: " + snapshot.features().size());
+        }
+        if (buffer.remaining() < HEADER_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        ByteBuffer out = buffer.order() == ByteOrder.BIG_ENDIAN ? buffer : buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        int start = buffer.position();
+        try {
+            out.position(start + HEADER_LENGTH);
+            for (Map.Entry<String, String> feature : snapshot.features().entrySet()) {
+                int id = schema.id(feature.getKey());
+                if (id < 0) {
+                    out.putShort((short) KEYED);
+                    putString(out, feature.getKey());
+                } else {
+                    out.putShort((short) id);
+                }
+                putString(out, feature.getValue());
+            }
+        } catch (BufferOverflowException | IllegalArgumentException ex) {
+            buffer.position(start);
+            throw ex;
+        }
+        int length = out.position() - start;
+        int flags = (snapshot.valid() ? VALID : 0) | (fingerprintDigest != null ? FINGERPRINT : 0);
+        out.put(start, VERSION)
+                .put(start + FLAGS_AT, (byte) flags)
+                .putShort(start + COUNT_AT, (short) snapshot.features().size())
+                .putInt(start + LENGTH_AT, length)
+                .putInt(start + CODE_AT, snapshot.code())
+                .putLong(start + EXPIRES_AT, snapshot.expiresAt())
+                .putLong(start + CHECKED_AT, snapshot.checkedAt());
+        for (int i = 0; i < DIGEST_LENGTH; i++) {
+            out.put(start + DIGEST_AT + i, fingerprintDigest != null ? fingerprintDigest[i] : 0);
+        }
+        buffer.position(start + length);
+        return length;
+    }
+
+    /**
+     * Checks the snapshot at the position of the buffer, and moves the
+     * position after it. The view reads from the buffer, which must not be
+     * changed while the view is used.
+     *
+     * @param buffer buffer holding an encoded snapshot
+     * @return view of the snapshot
+     * @throws IOException if the snapshot is truncated, malformed or of an
+     * unknown version
+     */
+    public View view(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_LENGTH) {
+            throw new IOException("truncated license snapshot: " + buffer.remaining() + " bytes");
+        }
+        ByteBuffer data = buffer.slice(start, HEADER_LENGTH);
+        int version = data.get(0);
+        if (version != VERSION) {
+            throw new IOException("unsupported license snapshot version " + version);
+        }
+        int length = data.getInt(LENGTH_AT);
+        if (length < HEADER_LENGTH || length > buffer.remaining()) {
+            throw new IOException("invalid license snapshot length: " + length);
+        }
+        data = buffer.slice(start, length);
+        int count = Short.toUnsignedInt(data.getShort(COUNT_AT));
+        int position = HEADER_LENGTH;
+        for (int i = 0; i < count; i++) {
+            if (position + 2 > length) {
+                throw new IOException("truncated license snapshot feature " + i);
+            }
+            int id = Short.toUnsignedInt(data.getShort(position));
+            position += 2;
+            if (id == KEYED) {
+                position = skipString(data, position);
+            } else if (id >= schema.size()) {
+                throw new IOException("unknown feature id " + id);
+            }
+            position = skipString(data, position);
+        }
+        if (position != length) {
+            throw new IOException("invalid license snapshot length: " + length + ", features end at " + position);
+        }
+        buffer.position(start + length);
+        return new View(data);
+    }
+
+    /**
+     * Reads the snapshot at the position of the buffer, and moves the
+     * position after it.
+     *
+     * @param buffer buffer holding an encoded snapshot
+     * @return snapshot
+     * @throws IOException if the snapshot is truncated, malformed or of an
+     * unknown version
+     */
+    public LicenseSnapshot decode(ByteBuffer buffer) throws IOException {
+        return view(buffer).toSnapshot();
+    }
+
+    /**
+     * Encoded snapshot read in place. Lookups scan the features, which is
+     * cheaper than hashing for the handful of features a license has.
+     */
+    public final class View {
+
+        private final ByteBuffer data;
+
+        private View(ByteBuffer data) {
+            this.data = data;
+        }
+
+        /**
+         * @return encoded length in bytes
+         */
+        public int length() {
+            return data.limit();
+        }
+
+        public boolean valid() {
+            return (data.get(FLAGS_AT) & VALID) != 0;
+        }
+
+        public int code() {
+            return data.getInt(CODE_AT);
+        }
+
+        public long expiresAt() {
+            return data.getLong(EXPIRES_AT);
+        }
+
+        public long checkedAt() {
+            return data.getLong(CHECKED_AT);
+        }
+
+        public int featureCount() {
+            return Short.toUnsignedInt(data.getShort(COUNT_AT));
+        }
+
+        /**
+         * @param fingerprintDigest digest of the device fingerprint, see
+         * {@link LicenseSnapshotCodec#digest(String)}
+         * @return true if the snapshot was encoded with the same digest
+         */
+        public boolean fingerprintMatches(byte[] fingerprintDigest) {
+            if ((data.get(FLAGS_AT) & FINGERPRINT) == 0 || fingerprintDigest.length != DIGEST_LENGTH) {
+                return false;
+            }
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                if (data.get(DIGEST_AT + i) != fingerprintDigest[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param id feature id of the schema
+         * @return true if the license has the feature
+         */
+        public boolean has(int id) {
+            return valueAt(id) >= 0;
+        }
+
+        /**
+         * Compares a feature value without decoding it.
+         *
+         * @param id feature id of the schema
+         * @param value expected value
+         * @return true if the license has the feature with the given value
+         */
+        public boolean featureEquals(int id, CharSequence value) {
+            int position = valueAt(id);
+            return position >= 0 && stringEquals(data, position, value);
+        }
+
+        /**
+         * @param id feature id of the schema
+         * @return feature value, or null if the license has no such feature
+         */
+        public String feature(int id) {
+            int position = valueAt(id);
+            return position >= 0 ? getString(data, position) : null;
+        }
+
+        /**
+         * @param key feature key, also one not in the schema
+         * @return feature value, or null if the license has no such feature
+         */
+        public String feature(String key) {
+            int id = schema.id(key);
+            if (id >= 0) {
+                return feature(id);
+            }
+            int position = HEADER_LENGTH;
+            for (int i = featureCount(); i > 0; i--) {
+                int entry = Short.toUnsignedInt(data.getShort(position));
+                position += 2;
+                if (entry == KEYED) {
+                    boolean matches = stringEquals(data, position, key);
+                    position = skip(data, position);
+                    if (matches) {
+                        return getString(data, position);
+                    }
+                }
+                position = skip(data, position);
+            }
+            return null;
+        }
+
+        /**
+         * @return snapshot with all fields decoded
+         */
+        public LicenseSnapshot toSnapshot() {
+            Map<String, String> features = new LinkedHashMap<>();
+            int position = HEADER_LENGTH;
+            for (int i = featureCount(); i > 0; i--) {
+                int id = Short.toUnsignedInt(data.getShort(position));
+                position += 2;
+                String key;
+                if (id == KEYED) {
+                    key = getString(data, position);
+                    position = skip(data, position);
+                } else {
+                    key = schema.key(id);
+                }
+                features.put(key, getString(data, position));
+                position = skip(data, position);
+            }
+            return new LicenseSnapshot(valid(), code(), features, expiresAt(), checkedAt());
+        }
+
+        /**
+         * @return position of the length of the feature value, or -1
+         */
+        private int valueAt(int id) {
+            int position = HEADER_LENGTH;
+            for (int i = featureCount(); i > 0; i--) {
+                int entry = Short.toUnsignedInt(data.getShort(position));
+                position += 2;
+                if (entry == KEYED) {
+                    position = skip(data, position);
+                } else if (entry == id) {
+                    return position;
+                }
+                position = skip(data, position);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Writes a string as UTF-8 without an intermediate byte array. Unpaired
+     * surrogates are written as {@code ?}, as {@link String#getBytes} does.
+     */
+    private static void putString(ByteBuffer buffer, CharSequence value) {
+        int lengthAt = buffer.position();
+        buffer.putShort((short) 0);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | codePoint >> 18))
+                            .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                            .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                            .put((byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        int length = buffer.position() - lengthAt - 2;
+        if (length > MAX_STRING) {
+            throw new IllegalArgumentException("string too long: " + length + " bytes");
+        }
+        buffer.putShort(lengthAt, (short) length);
+    }
+
+    private static String getString(ByteBuffer data, int position) {
+        int length = Short.toUnsignedInt(data.getShort(position));
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + position + 2, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        data.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares UTF-8 bytes with a string, encoding the string on the fly.
+     */
+    private static boolean stringEquals(ByteBuffer data, int position, CharSequence value) {
+        int end = position + 2 + Short.toUnsignedInt(data.getShort(position));
+        int at = position + 2;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, value.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+            int bytes = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (at + bytes > end) {
+                return false;
+            }
+            int lead = switch (bytes) {
+                case 1 -> codePoint;
+                case 2 -> 0xC0 | codePoint >> 6;
+                case 3 -> 0xE0 | codePoint >> 12;
+                default -> 0xF0 | codePoint >> 18;
+            };
+            if (data.get(at++) != (byte) lead) {
+                return false;
+            }
+            for (int shift = 6 * (bytes - 2); shift >= 0; shift -= 6) {
+                if (data.get(at++) != (byte) (0x80 | codePoint >> shift & 0x3F)) {
+                    return false;
+                }
+            }
+        }
+        return at == end;
+    }
+
+    private static int skip(ByteBuffer data, int position) {
+        return position + 2 + Short.toUnsignedInt(data.getShort(position));
+    }
+
+    private static int skipString(ByteBuffer data, int position) throws IOException {
+        if (position + 2 > data.limit()) {
+            throw new IOException("truncated license snapshot string at " + position);
+        }
+        int end = skip(data, position);
+        if (end > data.limit()) {
+            throw new IOException("truncated license snapshot string at " + position);
+        }
+        return end;
+    }
+}
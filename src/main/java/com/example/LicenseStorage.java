@@ -0,0 +1,47 @@
+package com.example;
+
+import java.io.IOException;
+
+/**
+ * Where license data is saved between runs.
+ *
+ * <ul>
+ * <li>{@link LicenseFileStore}: a file, the default,</li>
+ * <li>{@link RegistryLicenseStorage}: the Windows registry,</li>
+ * <li>{@link MemoryLicenseStorage}: memory only, for read-only container
+ * filesystems and tests,</li>
+ * <li>{@link WriteBehindLicenseStorage}: writes to another storage in the
+ * background.</li>
+ * </ul>
+ *
+ * Select one with {@link LicenseSettings.Builder#storage(LicenseStorage)}.
+ */
+public interface LicenseStorage {
+
+    /**
+     * @return saved license data, or null if there is none
+     * @throws IOException if the data cannot be read
+     */
+    byte[] read() throws IOException;
+
+    /**
+     * Replaces the saved license data.
+     *
+     * @param data license data
+     * @throws IOException if the data cannot be written
+     */
+    void write(byte[] data) throws IOException;
+
+    /**
+     * Removes the saved license data.
+     *
+     * @return false if there was no data
+     * @throws IOException if the data cannot be removed
+     */
+    boolean delete() throws IOException;
+
+    /**
+     * @return description of where the data is saved, e.g. a file path
+     */
+    String location();
+}
@@ -1,12 +1,113 @@
 package com.example;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
 /**
+ * Audits license keys in bulk with {@link LicenseAudit}, e.g. to find expired,
+ * disabled or unknown keys:
+ *
+ * <pre>
+ * java com.example.Main --product HASH [--file LICENSE_FILE] [--format csv|json] [--concurrency N] [KEYS_FILE|-]
+ * </pre>
+ *
+ * Keys are read from the file, or from stdin if none or {@code -} is given;
+ * results go to stdout and totals to stderr. Valid keys are invalidated right
+ * after validation, so the audit does not keep their usages. License data is
+ * saved to a temporary directory, deleted afterwards, unless a license file is
+ * given: auditing with the default location of the product would replace and
+ * then delete the activation of this machine. The exit status is 1 if any key
+ * could not be checked, and 2 for invalid arguments.
+ *
+ * <p>
  * See test packages, there is ExampleTest.java with many JUNIT tests. It
- * includes many licensing use cases.
+ * includes many licensing use cases.</p>
  */
 public class Main {
 
-    public static void main(String[] args) {
-        System.out.println("Hello World!");
+    private static final String USAGE = "usage: java com.example.Main --product HASH [--file LICENSE_FILE] [--format csv|json] [--concurrency N] [KEYS_FILE|-]"
+            + System.lineSeparator()
+            + "license data is saved to a temporary directory unless --file is given";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LicenseSettings.Builder settings = LicenseSettings.builder();
+        LicenseAudit.Format format = LicenseAudit.Format.CSV;
+        int concurrency = 4;
+        String input = "-";
+        String file = null;
+        boolean product = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--product" -> {
+                        settings.product(args[++i]);
+                        product = true;
+                    }
+                    case "--file" -> file = args[++i];
+                    case "--format" -> format = LicenseAudit.Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("unknown option: " + args[i]);
+                        }
+                        input = args[i];
+                    }
+                }
+            }
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be positive: " + concurrency);
+            }
+            if (product) {
+                // rejects a malformed product hash before anything is created
+                settings.build();
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException ex) {
+            product = false;
+        }
+        if (!product) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        Path temp = null;
+        if (file == null) {
+            temp = Files.createTempDirectory("license-audit");
+            file = temp.resolve("license.l4j").toString();
+        }
+        LicenseSettings built = settings.file(file).build();
+        LicenseAudit audit = new LicenseAudit(() -> new LibraryLicenseClient(built), concurrency, format);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        LicenseAudit.Summary summary;
+        try (Reader in = input.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+            summary = audit.run(in, out);
+        } finally {
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+        System.err.println(summary);
+        if (summary.errors() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
     }
 }
@@ -0,0 +1,32 @@
+package com.example;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * License data kept in memory only, lost when the process exits.
+ */
+public final class MemoryLicenseStorage implements LicenseStorage {
+
+    private final AtomicReference<byte[]> data = new AtomicReference<>();
+
+    @Override
+    public byte[] read() {
+        byte[] current = data.get();
+        return current != null ? current.clone() : null;
+    }
+
+    @Override
+    public void write(byte[] data) {
+        this.data.set(data.clone());
+    }
+
+    @Override
+    public boolean delete() {
+        return data.getAndSet(null) != null;
+    }
+
+    @Override
+    public String location() {
+        return "memory:" + Integer.toHexString(System.identityHashCode(this));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers repeated validations of keys that are not found, disabled or
+ * expired locally for a while, instead of asking the license server again.
+ * Concurrent validations of the same key share one request, so a retry storm
+ * costs one server round trip per key and time to live.
+ *
+ * <p>
+ * The cache holds at most {@code maxEntries} keys. When it grows beyond, one
+ * thread removes expired entries and, if still needed, arbitrary ones down to
+ * three quarters of the limit, while other threads go on.</p>
+ */
+public final class NegativeCachingLicenseClient implements LicenseClient {
+
+    private record Entry(LicenseSnapshot snapshot, long expiresAt) {
+    }
+
+    private final LicenseClient client;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final TimeSource time;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<LicenseSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock eviction = new ReentrantLock();
+
+    private volatile LicenseSnapshot status;
+
+    /**
+     * @param client client to validate keys not in the cache
+     * @param ttl how long a negative result is reused
+     * @param maxEntries maximum number of cached keys
+     */
+    public NegativeCachingLicenseClient(LicenseClient client, Duration ttl, int maxEntries) {
+        this(client, ttl, maxEntries, TimeSource.SYSTEM);
+    }
+
+    /**
+     * @param client client to validate keys not in the cache
+     * @param ttl how long a negative result is reused
+     * @param maxEntries maximum number of cached keys
+     * @param time time source measuring the time to live
+     */
+    public NegativeCachingLicenseClient(LicenseClient client, Duration ttl, int maxEntries, TimeSource time) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.client = client;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.time = time;
+        this.status = client.status();
+    }
+
+    /**
+     * @param code status code
+     * @return true for results that do not change until the license is
+     * changed on the license server
+     */
+    public static boolean isCacheable(int code) {
+        return code == LicenseCodes.NOT_FOUND || code == LicenseCodes.DISABLED || code == LicenseCodes.EXPIRED;
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        Entry entry = cache.get(licenseKey);
+        if (entry != null) {
+            if (time.nanoTime() - entry.expiresAt() < 0) {
+                return status = entry.snapshot();
+            }
+            cache.remove(licenseKey, entry);
+        }
+
+        CompletableFuture<LicenseSnapshot> call = new CompletableFuture<>();
+        CompletableFuture<LicenseSnapshot> running = inFlight.putIfAbsent(licenseKey, call);
+        if (running != null) {
+            return status = join(running);
+        }
+        try {
+            LicenseSnapshot result = client.validate(licenseKey);
+            if (isCacheable(result.code())) {
+                cache.put(licenseKey, new Entry(result, time.nanoTime() + ttlNanos));
+                if (cache.size() > maxEntries) {
+                    evict();
+                }
+            }
+            call.complete(result);
+            return status = result;
+        } catch (RuntimeException ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(licenseKey, call);
+        }
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        return status = client.validate();
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        return status = client.invalidate();
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    /**
+     * @return number of cached keys, including expired ones not yet removed
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes all cached results, e.g. after licenses were changed on the
+     * license server.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    private void evict() {
+        if (!eviction.tryLock()) {
+            return;
+        }
+        try {
+            long now = time.nanoTime();
+            cache.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+            int target = maxEntries / 4 * 3;
+            Iterator<Entry> entries = cache.values().iterator();
+            while (cache.size() > target && entries.hasNext()) {
+                entries.next();
+                entries.remove();
+            }
+        } finally {
+            eviction.unlock();
+        }
+    }
+
+    private static LicenseSnapshot join(CompletableFuture<LicenseSnapshot> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
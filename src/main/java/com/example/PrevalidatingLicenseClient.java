@@ -0,0 +1,47 @@
+package com.example;
+
+/**
+ * Rejects malformed license keys before they reach the wrapped client, so
+ * that floods of garbage keys cost a character scan instead of disk, crypto
+ * and network work. Rejections return a shared snapshot with
+ * {@link LicenseCodes#INVALID_KEY_FORMAT} and do not allocate.
+ */
+public final class PrevalidatingLicenseClient implements LicenseClient {
+
+    /**
+     * Result of every rejected key. Its checkedAt is 0 since it is shared.
+     */
+    public static final LicenseSnapshot REJECTED = LicenseSnapshot.invalid(LicenseCodes.INVALID_KEY_FORMAT, 0);
+
+    private final LicenseClient client;
+
+    private volatile LicenseSnapshot status;
+
+    public PrevalidatingLicenseClient(LicenseClient client) {
+        this.client = client;
+        this.status = client.status();
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        if (!LicenseKeys.isWellFormed(licenseKey)) {
+            return status = REJECTED;
+        }
+        return status = client.validate(licenseKey);
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        return status = client.validate();
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        return status = client.invalidate();
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * License data saved as a binary value of a registry key, through
+ * {@link Preferences}. On Windows, user preferences are stored in the registry
+ * under {@code HKEY_CURRENT_USER\SOFTWARE\JavaSoft\Prefs}; other platforms
+ * keep them in a file in the user's home directory.
+ *
+ * <p>
+ * This is not the registry location the library uses for
+ * {@code .registry(key, value)}, which is not accessible through the JDK.
+ * Values are limited to {@link Preferences#MAX_VALUE_LENGTH} characters of
+ * Base64, about 6 KB of license data.</p>
+ */
+public final class RegistryLicenseStorage implements LicenseStorage {
+
+    private static final int MAX_DATA_LENGTH = Preferences.MAX_VALUE_LENGTH / 4 * 3;
+
+    private final Preferences node;
+    private final String value;
+
+    /**
+     * @param key registry key, e.g. MyExampleProduct1
+     * @param value registry value, e.g. license
+     */
+    public RegistryLicenseStorage(String key, String value) {
+        this.node = Preferences.userRoot().node(key);
+        this.value = value;
+    }
+
+    @Override
+    public byte[] read() throws IOException {
+        return node.getByteArray(value, null);
+    }
+
+    @Override
+    public void write(byte[] data) throws IOException {
+        if (data.length > MAX_DATA_LENGTH) {
+            throw new IOException("license data too large for registry: " + data.length + " bytes");
+        }
+        node.putByteArray(value, data);
+        flush();
+    }
+
+    @Override
+    public boolean delete() throws IOException {
+        if (node.get(value, null) == null) {
+            return false;
+        }
+        node.remove(value);
+        flush();
+        return true;
+    }
+
+    @Override
+    public String location() {
+        return node.absolutePath() + "/" + value;
+    }
+
+    private void flush() throws IOException {
+        try {
+            node.flush();
+        } catch (BackingStoreException ex) {
+            throw new IOException(ex);
+        }
+    }
+}
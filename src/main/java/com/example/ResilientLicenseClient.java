@@ -0,0 +1,393 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Protects callers from a slow or unavailable license server. Every
+ * operation runs on a virtual thread and is abandoned, and interrupted, when
+ * it exceeds its deadline. Consecutive timeouts and server errors open a
+ * circuit breaker; while it is open, {@link #validate()} (the periodic
+ * heartbeat of floating licenses) returns the last known status, and
+ * {@link #validate(String)} and {@link #invalidate()} fail at once. After the
+ * open time one trial call is let through, closing the breaker if it
+ * succeeds.
+ *
+ * <p>
+ * An abandoned operation may ignore the interrupt, e.g. the library's HTTP
+ * call, and keep running. Until it ends, no other operation is started: they
+ * are handled as if the breaker were open, so calls do not pile up behind it
+ * or overtake it. Its result, if any, becomes the status.</p>
+ *
+ * <p>
+ * Optionally, a {@link #validate()} still running after the given percentile
+ * of observed latencies is hedged: a second attempt is started and the first
+ * result wins. Activations and invalidations are never sent twice. Only hedge
+ * clients that tolerate two concurrent calls, e.g. not
+ * {@link LibraryLicenseClient}, which serializes them anyway.</p>
+ */
+public final class ResilientLicenseClient implements LicenseClient, AutoCloseable {
+
+    /**
+     * Circuit breaker state.
+     */
+    public enum State {
+        /**
+         * Calls go to the license server.
+         */
+        CLOSED,
+        /**
+         * Calls fail or return the last known status without reaching the
+         * license server.
+         */
+        OPEN,
+        /**
+         * A trial call is in flight, other calls are handled as if open.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Successful calls needed before latencies are used for hedging.
+     */
+    static final int HEDGE_MIN_SAMPLES = 20;
+
+    private record Breaker(State state, int failures, long openedAt) {
+    }
+
+    private final LicenseClient client;
+    private final long deadlineNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final double hedgePercentile;
+    private final TimeSource time;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicReference<Breaker> breaker = new AtomicReference<>(new Breaker(State.CLOSED, 0, 0));
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger abandoned = new AtomicInteger();
+
+    private volatile LicenseSnapshot status;
+
+    private ResilientLicenseClient(Builder builder) {
+        this.client = builder.client;
+        this.deadlineNanos = builder.deadline.toNanos();
+        this.failureThreshold = builder.failureThreshold;
+        this.openNanos = builder.openDuration.toNanos();
+        this.hedgePercentile = builder.hedgePercentile;
+        this.time = builder.time;
+        this.status = client.status();
+    }
+
+    /**
+     * @param client client to protect
+     * @return builder with a 10 second deadline, a breaker opening for 30
+     * seconds after 5 consecutive failures, and no hedging
+     */
+    public static Builder builder(LicenseClient client) {
+        return new Builder(client);
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        if (abandoned.get() > 0) {
+            throw busy();
+        }
+        if (!allowCall()) {
+            throw open();
+        }
+        return status = call(() -> client.validate(licenseKey), false);
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        if (abandoned.get() > 0 || !allowCall()) {
+            return status;
+        }
+        return status = call(client::validate, true);
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        if (abandoned.get() > 0) {
+            throw busy();
+        }
+        if (!allowCall()) {
+            throw open();
+        }
+        return status = call(client::invalidate, false);
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    public State state() {
+        return breaker.get().state();
+    }
+
+    /**
+     * @return number of abandoned calls still running; no call is started
+     * until it is 0
+     */
+    public int abandonedCalls() {
+        return abandoned.get();
+    }
+
+    /**
+     * Interrupts running calls.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return true if the call may go to the license server; moves an open
+     * breaker to half-open for one trial call after the open time
+     */
+    private boolean allowCall() {
+        while (true) {
+            Breaker current = breaker.get();
+            switch (current.state()) {
+                case CLOSED -> {
+                    return true;
+                }
+                case HALF_OPEN -> {
+                    return false;
+                }
+                case OPEN -> {
+                    if (time.nanoTime() - current.openedAt() < openNanos) {
+                        return false;
+                    }
+                    if (breaker.compareAndSet(current, new Breaker(State.HALF_OPEN, current.failures(), current.openedAt()))) {
+                        return true;
+                    }
+                }
+            }
+        }
+    }
+
+    private LicenseSnapshot call(Supplier<LicenseSnapshot> operation, boolean hedged) {
+        long start = System.nanoTime();
+        CompletableFuture<LicenseSnapshot> result = new CompletableFuture<>();
+        AtomicInteger attempts = new AtomicInteger(1);
+        Attempt first = new Attempt(operation, result, attempts);
+        Attempt second = null;
+        executor.execute(first);
+        try {
+            long hedgeNanos = hedged ? hedgeDelayNanos() : 0;
+            if (hedgeNanos > 0 && hedgeNanos < deadlineNanos) {
+                try {
+                    return succeeded(result.get(hedgeNanos, TimeUnit.NANOSECONDS));
+                } catch (TimeoutException ex) {
+                    attempts.incrementAndGet();
+                    second = new Attempt(operation, result, attempts);
+                    executor.execute(second);
+                }
+            }
+            return succeeded(result.get(deadlineNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException ex) {
+            failed();
+            throw new UncheckedIOException(new InterruptedIOException("license server did not answer within " + Duration.ofNanos(deadlineNanos)));
+        } catch (ExecutionException ex) {
+            failed();
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new UncheckedIOException(new IOException(ex.getCause()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            failed();
+            throw new UncheckedIOException(new InterruptedIOException("interrupted while waiting for license server"));
+        } finally {
+            first.abandon();
+            if (second != null) {
+                second.abandon();
+            }
+        }
+    }
+
+    private long hedgeDelayNanos() {
+        if (hedgePercentile <= 0 || latencies.getCount() < HEDGE_MIN_SAMPLES) {
+            return 0;
+        }
+        return Math.max(1, latencies.valueAtPercentile(hedgePercentile));
+    }
+
+    private LicenseSnapshot succeeded(LicenseSnapshot snapshot) {
+        breaker.set(new Breaker(State.CLOSED, 0, 0));
+        return snapshot;
+    }
+
+    private void failed() {
+        while (true) {
+            Breaker current = breaker.get();
+            int failures = current.failures() + 1;
+            Breaker next = current.state() == State.HALF_OPEN || failures >= failureThreshold
+                    ? new Breaker(State.OPEN, failures, time.nanoTime())
+                    : new Breaker(current.state(), failures, current.openedAt());
+            if (breaker.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private UncheckedIOException open() {
+        return new UncheckedIOException(new IOException("license server circuit breaker is open"));
+    }
+
+    private UncheckedIOException busy() {
+        return new UncheckedIOException(new IOException("abandoned license server call still running"));
+    }
+
+    /**
+     * One attempt of an operation, on its own virtual thread.
+     */
+    private final class Attempt implements Runnable {
+
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int ABANDONED = 2;
+        private static final int DONE = 3;
+
+        private final Supplier<LicenseSnapshot> operation;
+        private final CompletableFuture<LicenseSnapshot> result;
+        private final AtomicInteger attempts;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        private volatile Thread thread;
+
+        Attempt(Supplier<LicenseSnapshot> operation, CompletableFuture<LicenseSnapshot> result, AtomicInteger attempts) {
+            this.operation = operation;
+            this.result = result;
+            this.attempts = attempts;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                // abandoned before it started
+                return;
+            }
+            long start = System.nanoTime();
+            LicenseSnapshot snapshot = null;
+            Throwable failure = null;
+            try {
+                snapshot = operation.get();
+                latencies.record(System.nanoTime() - start);
+            } catch (Throwable ex) {
+                failure = ex;
+            }
+            if (state.getAndSet(DONE) == ABANDONED) {
+                if (snapshot != null) {
+                    // the license server has seen it, whatever the caller was told
+                    status = snapshot;
+                }
+                abandoned.decrementAndGet();
+            } else if (snapshot != null) {
+                result.complete(snapshot);
+            } else if (attempts.decrementAndGet() == 0) {
+                // with a hedge running, only the last failure counts
+                result.completeExceptionally(failure);
+            }
+        }
+
+        /**
+         * Interrupts the attempt if still running; it counts as abandoned
+         * until it ends.
+         */
+        void abandon() {
+            if (state.compareAndSet(NEW, DONE)) {
+                return;
+            }
+            if (state.compareAndSet(RUNNING, ABANDONED)) {
+                abandoned.incrementAndGet();
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Configures a {@link ResilientLicenseClient}.
+     */
+    public static final class Builder {
+
+        private final LicenseClient client;
+        private Duration deadline = Duration.ofSeconds(10);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private double hedgePercentile;
+        private TimeSource time = TimeSource.SYSTEM;
+
+        private Builder(LicenseClient client) {
+            this.client = client;
+        }
+
+        /**
+         * @param deadline maximum time of each operation
+         * @return this builder
+         */
+        public Builder deadline(Duration deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * @param failures consecutive timeouts or server errors that open the
+         * breaker
+         * @param openDuration time the breaker stays open before a trial call
+         * @return this builder
+         */
+        public Builder breaker(int failures, Duration openDuration) {
+            this.failureThreshold = failures;
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * @param percentile percentile of observed latencies, e.g. 95, after
+         * which a second attempt is started; 0 disables hedging
+         * @return this builder
+         */
+        public Builder hedge(double percentile) {
+            this.hedgePercentile = percentile;
+            return this;
+        }
+
+        /**
+         * @param time time source measuring the open time of the breaker;
+         * deadlines and hedging always use the system clock
+         * @return this builder
+         */
+        public Builder timeSource(TimeSource time) {
+            this.time = time;
+            return this;
+        }
+
+        public ResilientLicenseClient build() {
+            if (deadline.isNegative() || deadline.isZero()) {
+                throw new IllegalArgumentException("deadline must be positive: " + deadline);
+            }
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("failures must be positive: " + failureThreshold);
+            }
+            if (hedgePercentile < 0 || hedgePercentile >= 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100: " + hedgePercentile);
+            }
+            return new ResilientLicenseClient(this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example;
+
+/**
+ * Source of the current time for expiry, time to live and breaker checks,
+ * so that tests can move time forward instead of waiting for it.
+ */
+public interface TimeSource {
+
+    /**
+     * The system clock.
+     */
+    TimeSource SYSTEM = new TimeSource() {
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * @return current time in epoch milliseconds, see
+     * {@link System#currentTimeMillis()}
+     */
+    long currentTimeMillis();
+
+    /**
+     * @return monotonic time in nanoseconds, only meaningful as a difference,
+     * see {@link System#nanoTime()}
+     */
+    long nanoTime();
+}
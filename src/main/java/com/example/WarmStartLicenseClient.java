@@ -0,0 +1,228 @@
+package com.example;
+
+import java.io.IOException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Validates without waiting for the license server after a restart. If the
+ * saved {@link LicenseData} has a valid server signature, matches the product
+ * and device fingerprint, and was issued within the freshness window,
+ * {@link #validate()} returns its snapshot immediately and confirms it with
+ * the server on a background virtual thread. Otherwise it validates with the
+ * server as usual.
+ *
+ * <p>
+ * A failed confirmation, e.g. server unavailable, keeps the saved result. A
+ * confirmation rejected by the server is published, and later calls go to
+ * the server until a license key is validated again. {@link #invalidate()}
+ * cancels a running confirmation, and a result arriving after it is
+ * discarded.</p>
+ */
+public final class WarmStartLicenseClient implements LicenseClient, AutoCloseable {
+
+    private final LicenseClient client;
+    private final LicenseStorage storage;
+    private final String productHash;
+    private final PublicKey serverKey;
+    private final Supplier<String> fingerprint;
+    private final Duration freshness;
+    private final LicenseMetrics metrics;
+    private final TimeSource time;
+    private final AsyncLicenseClient async;
+    private final AtomicReference<CompletableFuture<LicenseSnapshot>> confirmation = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile LicenseSnapshot status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+    private volatile boolean rejected;
+
+    /**
+     * @param client client confirming with the server, saving license data in
+     * the storage of the settings
+     * @param settings license settings
+     * @param serverKey public key of the license server
+     * @param fingerprint current device fingerprint, e.g.
+     * {@link CachedSystemInformation#fingerprint()}
+     * @param freshness how long after issue saved license data is trusted
+     */
+    public WarmStartLicenseClient(LicenseClient client, LicenseSettings settings, PublicKey serverKey, Supplier<String> fingerprint, Duration freshness) {
+        this(client, settings, serverKey, fingerprint, freshness, null);
+    }
+
+    /**
+     * @param client client confirming with the server, saving license data in
+     * the storage of the settings
+     * @param settings license settings
+     * @param serverKey public key of the license server
+     * @param fingerprint current device fingerprint
+     * @param freshness how long after issue saved license data is trusted
+     * @param metrics records the signature check as
+     * {@link LicenseMetrics.Phase#CRYPTO} time, or null
+     */
+    public WarmStartLicenseClient(LicenseClient client, LicenseSettings settings, PublicKey serverKey, Supplier<String> fingerprint, Duration freshness, LicenseMetrics metrics) {
+        this(client, settings, serverKey, fingerprint, freshness, metrics, TimeSource.SYSTEM);
+    }
+
+    /**
+     * @param client client confirming with the server, saving license data in
+     * the storage of the settings
+     * @param settings license settings
+     * @param serverKey public key of the license server
+     * @param fingerprint current device fingerprint
+     * @param freshness how long after issue saved license data is trusted
+     * @param metrics records the signature check as
+     * {@link LicenseMetrics.Phase#CRYPTO} time, or null
+     * @param time time source for the freshness window and license expiry
+     */
+    public WarmStartLicenseClient(LicenseClient client, LicenseSettings settings, PublicKey serverKey, Supplier<String> fingerprint, Duration freshness, LicenseMetrics metrics, TimeSource time) {
+        this.client = client;
+        this.storage = settings.storage();
+        this.productHash = settings.productHash();
+        this.serverKey = serverKey;
+        this.fingerprint = fingerprint;
+        this.freshness = freshness;
+        this.metrics = metrics;
+        this.time = time;
+        this.async = new AsyncLicenseClient(client);
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        LicenseSnapshot result = client.validate(licenseKey);
+        rejected = !result.valid();
+        return status = result;
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        LicenseData saved = rejected ? null : fresh();
+        if (saved == null) {
+            return status = client.validate();
+        }
+        status = saved.snapshot();
+        confirm();
+        return saved.snapshot();
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+        CompletableFuture<LicenseSnapshot> current = confirmation.get();
+        if (current != null) {
+            current.cancel(true);
+        }
+        rejected = false;
+        return status = client.invalidate();
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    /**
+     * @return the last background confirmation, or a completed future with
+     * the current status if none was started
+     */
+    public CompletableFuture<LicenseSnapshot> confirmation() {
+        CompletableFuture<LicenseSnapshot> current = confirmation.get();
+        return current != null ? current : CompletableFuture.completedFuture(status);
+    }
+
+    /**
+     * Interrupts a running confirmation.
+     */
+    @Override
+    public void close() {
+        async.close();
+    }
+
+    /**
+     * @return saved license data if it can be trusted without the server,
+     * otherwise null
+     */
+    private LicenseData fresh() {
+        LicenseData data;
+        try {
+            byte[] saved = storage.read();
+            if (saved == null) {
+                return null;
+            }
+            data = LicenseData.decode(saved);
+        } catch (IOException ex) {
+            return null;
+        }
+        long now = time.currentTimeMillis();
+        boolean usable = data.snapshot().valid()
+                && data.snapshot().expiresAt() > now
+                && now - data.issuedAt() <= freshness.toMillis()
+                && data.productHash().equals(productHash)
+                && data.fingerprint().equals(fingerprint.get());
+        if (!usable) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean verified = data.verify(serverKey);
+        if (metrics != null) {
+            metrics.record(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.CRYPTO, System.nanoTime() - start);
+        }
+        return verified ? data : null;
+    }
+
+    private void confirm() {
+        CompletableFuture<LicenseSnapshot> current = confirmation.get();
+        if (current != null && !current.isDone()) {
+            return;
+        }
+        CompletableFuture<LicenseSnapshot> next = new CompletableFuture<>();
+        if (!confirmation.compareAndSet(current, next)) {
+            return;
+        }
+        long started = generation.get();
+        CompletableFuture<LicenseSnapshot> task = async.validateAsync();
+        task.whenComplete((result, ex) -> {
+            if (result != null && publish(result, started)) {
+                next.complete(result);
+            } else if (result != null) {
+                next.cancel(false);
+            } else {
+                next.completeExceptionally(ex);
+            }
+        });
+        next.whenComplete((result, ex) -> {
+            if (ex != null) {
+                // cancelled by invalidate()
+                task.cancel(true);
+            }
+        });
+    }
+
+    /**
+     * @param started generation when the confirmation started
+     * @return false if invalidated since, and the result was discarded
+     */
+    private boolean publish(LicenseSnapshot result, long started) {
+        lock.lock();
+        try {
+            if (generation.get() != started) {
+                return false;
+            }
+            rejected = !result.valid();
+            status = result;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
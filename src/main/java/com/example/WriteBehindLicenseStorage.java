@@ -0,0 +1,134 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes license data to another storage in the background. Writes and
+ * deletes return immediately, reads see them at once, and when several
+ * happen before the background write runs, only the last one is written.
+ *
+ * <p>
+ * Data whose background write failed stays pending, and is written again by
+ * the next write, delete, {@link #flush()}, or {@link #close()}. Data not yet
+ * written is lost if the process exits without {@link #flush()} or
+ * {@link #close()}.</p>
+ */
+public final class WriteBehindLicenseStorage implements LicenseStorage, AutoCloseable {
+
+    /**
+     * Marks a pending delete.
+     */
+    private static final byte[] DELETED = new byte[0];
+
+    private final LicenseStorage storage;
+    private final ExecutorService writer;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+
+    private volatile IOException lastFailure;
+
+    public WriteBehindLicenseStorage(LicenseStorage storage) {
+        this.storage = storage;
+        this.writer = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("license-write-behind")
+                .daemon()
+                .factory());
+    }
+
+    @Override
+    public byte[] read() throws IOException {
+        byte[] current = pending.get();
+        if (current == DELETED) {
+            return null;
+        }
+        return current != null ? current.clone() : storage.read();
+    }
+
+    @Override
+    public void write(byte[] data) {
+        schedule(data.clone());
+    }
+
+    @Override
+    public boolean delete() throws IOException {
+        boolean existed = read() != null;
+        schedule(DELETED);
+        return existed;
+    }
+
+    @Override
+    public String location() {
+        return storage.location();
+    }
+
+    /**
+     * Waits for pending data to be written.
+     *
+     * @throws IOException if the last background write failed
+     */
+    public void flush() throws IOException {
+        Future<?> done = writer.submit(this::drain);
+        try {
+            done.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while flushing license data", ex);
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        }
+        if (lastFailure != null) {
+            throw lastFailure;
+        }
+    }
+
+    /**
+     * Flushes pending data and stops the background writer.
+     *
+     * @throws IOException if the last background write failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private void schedule(byte[] data) {
+        // after a failed write the data is still pending, but no drain is queued
+        if (pending.getAndSet(data) == null || lastFailure != null) {
+            writer.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        byte[] data = pending.get();
+        if (data == null) {
+            return;
+        }
+        try {
+            if (data == DELETED) {
+                storage.delete();
+            } else {
+                storage.write(data);
+            }
+            lastFailure = null;
+            if (pending.compareAndSet(data, null)) {
+                return;
+            }
+        } catch (IOException ex) {
+            // the failed data stays pending for the next drain
+            lastFailure = ex;
+            if (pending.get() == data) {
+                return;
+            }
+        }
+        // newer data was scheduled meanwhile
+        writer.execute(this::drain);
+    }
+}
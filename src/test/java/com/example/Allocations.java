@@ -0,0 +1,35 @@
+package com.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+import org.junit.jupiter.api.Assertions;
+
+/**
+ * Allocation budgets of hot paths, measured with the per-thread allocation
+ * counter of the JVM.
+ */
+final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Runs an action on the calling thread and asserts that it allocated at
+     * most the given number of bytes. A few bytes may come from the allocation
+     * counter itself, so a budget of 0 is not reliable.
+     *
+     * @param bytes budget
+     * @param action action, e.g. a loop of a million checks
+     * @return result of the action, e.g. the number of matching checks
+     */
+    static int assertAtMost(long bytes, IntSupplier action) {
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        int result = action.getAsInt();
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+
+        Assertions.assertTrue(allocated <= bytes, "allocated " + allocated + " bytes, budget " + bytes);
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class AsyncLicenseClientTest {
+
+    /**
+     * Client which blocks for a while, and records whether it ran on a virtual
+     * thread and whether it was interrupted.
+     */
+    private static final class SleepingClient implements LicenseClient {
+
+        private final Duration sleep;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+        private volatile boolean virtual;
+
+        SleepingClient(Duration sleep) {
+            this.sleep = sleep;
+        }
+
+        @Override
+        public LicenseSnapshot validate(String licenseKey) {
+            virtual = Thread.currentThread().isVirtual();
+            started.countDown();
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw new IllegalStateException(ex);
+            }
+            return new LicenseSnapshot(true, LicenseCodes.VALID, Map.of(), LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis());
+        }
+
+        @Override
+        public LicenseSnapshot validate() {
+            return validate(null);
+        }
+
+        @Override
+        public LicenseSnapshot invalidate() {
+            return LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+        }
+
+        @Override
+        public LicenseSnapshot status() {
+            return invalidate();
+        }
+    }
+
+    @Test
+    @DisplayName("Asynchronous Validation Publishes Result")
+    void async01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+
+        try (AsyncLicenseClient client = new AsyncLicenseClient(status)) {
+            CompletableFuture<LicenseSnapshot> validation = client.validateAsync(LicenseFixtures.KEY_VALID_NODELOCKED);
+
+            Assertions.assertTrue(validation.join().valid());
+            Assertions.assertTrue(status.isValid());
+
+            Assertions.assertFalse(client.invalidateAsync().join().valid());
+            Assertions.assertFalse(status.isValid());
+        }
+    }
+
+    @Test
+    @DisplayName("Runs on Virtual Threads")
+    void async02() {
+        SleepingClient sleeping = new SleepingClient(Duration.ZERO);
+
+        try (AsyncLicenseClient client = new AsyncLicenseClient(sleeping)) {
+            client.validateAsync().join();
+        }
+
+        Assertions.assertTrue(sleeping.virtual);
+    }
+
+    @Test
+    @DisplayName("Deadline Exceeded Interrupts Validation")
+    void async03() throws InterruptedException {
+        SleepingClient sleeping = new SleepingClient(Duration.ofSeconds(30));
+
+        try (AsyncLicenseClient client = new AsyncLicenseClient(sleeping)) {
+            CompletableFuture<LicenseSnapshot> validation = client.validateAsync(LicenseFixtures.KEY_VALID_NODELOCKED, Duration.ofSeconds(1));
+            // a deadline passing before the task starts would cancel it without an interrupt
+            Assertions.assertTrue(sleeping.started.await(1, TimeUnit.SECONDS));
+
+            ExecutionException ex = Assertions.assertThrows(ExecutionException.class, () -> validation.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(TimeoutException.class, ex.getCause());
+            Assertions.assertTrue(sleeping.interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Cancellation Interrupts Validation")
+    void async04() throws InterruptedException {
+        SleepingClient sleeping = new SleepingClient(Duration.ofSeconds(30));
+
+        try (AsyncLicenseClient client = new AsyncLicenseClient(sleeping)) {
+            CompletableFuture<LicenseSnapshot> validation = client.validateAsync();
+            Assertions.assertTrue(sleeping.started.await(5, TimeUnit.SECONDS));
+            validation.cancel(true);
+
+            Assertions.assertTrue(validation.isCancelled());
+            Assertions.assertTrue(sleeping.interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Thousands of Concurrent Validations")
+    void async05() {
+        SleepingClient sleeping = new SleepingClient(Duration.ofSeconds(1));
+        List<CompletableFuture<LicenseSnapshot>> validations = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (AsyncLicenseClient client = new AsyncLicenseClient(sleeping)) {
+            for (int i = 0; i < 5_000; i++) {
+                validations.add(client.validateAsync());
+            }
+            CompletableFuture.allOf(validations.toArray(CompletableFuture[]::new)).join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // validations sleep concurrently, one after another would take 5000s
+        Assertions.assertTrue(elapsed < Duration.ofSeconds(60).toNanos(), "elapsed " + elapsed + "ns");
+        Assertions.assertTrue(validations.stream().allMatch(validation -> validation.join().valid()));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class CachedLicenseStatusTest {
+
+    @Test
+    @DisplayName("Snapshot Published After Validation")
+    void cached01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(status.isValid()),
+                () -> Assertions.assertEquals(LicenseCodes.NOT_VALIDATED, status.code())
+        );
+
+        status.validate(LicenseFixtures.KEY_FEATURES);
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(status.isValid()),
+                () -> Assertions.assertEquals(LicenseCodes.VALID, status.code()),
+                () -> Assertions.assertEquals("anything1", status.feature("AnyFeatureKey")),
+                () -> Assertions.assertEquals(LicenseSnapshot.NO_EXPIRY, status.expiresAt())
+        );
+
+        status.invalidate();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(status.isValid()),
+                () -> Assertions.assertNull(status.feature("AnyFeatureKey"))
+        );
+    }
+
+    @Test
+    @DisplayName("Invalid Result Replaces Valid Snapshot")
+    void cached02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+
+        status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        Assertions.assertTrue(status.isValid());
+
+        status.validate(LicenseFixtures.KEY_EXPIRED);
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(status.isValid()),
+                () -> Assertions.assertEquals(LicenseCodes.EXPIRED, status.code())
+        );
+    }
+
+    @Test
+    @DisplayName("Readers See Consistent Snapshots During Revalidation")
+    void cached03(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger inconsistent = new AtomicInteger();
+
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    LicenseSnapshot snapshot = status.snapshot();
+                    if (snapshot.valid() != (snapshot.code() == LicenseCodes.VALID)
+                            || snapshot.valid() != (snapshot.feature("AnyFeatureKey") != null)) {
+                        inconsistent.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < 10; i++) {
+            status.validate(LicenseFixtures.KEY_FEATURES);
+            status.invalidate();
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        Assertions.assertEquals(0, inconsistent.get());
+    }
+
+    @Test
+    @DisplayName("Feature Index Published With Snapshot")
+    void cached04(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        FeatureSchema schema = FeatureSchema.of("my-product-edition", "my-product-core-32");
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()), schema);
+
+        Assertions.assertFalse(status.features().enabled(schema.id("my-product-edition")));
+
+        status.validate(LicenseFixtures.KEY_FEATURES);
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(status.features().valueEquals(schema.id("my-product-edition"), "Professional")),
+                () -> Assertions.assertTrue(status.features().withinLimit(schema.id("my-product-core-32"), 32))
+        );
+
+        status.invalidate();
+
+        Assertions.assertFalse(status.features().has(schema.id("my-product-edition")));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachedSystemInformationTest {
+
+    /**
+     * Probes counting their calls, one per test since tests run in parallel.
+     */
+    private static final class Probes {
+
+        final AtomicInteger cores = new AtomicInteger();
+        final AtomicInteger users = new AtomicInteger();
+        final AtomicInteger fingerprints = new AtomicInteger();
+        final ManualTimeSource time = new ManualTimeSource();
+
+        CachedSystemInformation systemInformation(Duration ttl) {
+            return new CachedSystemInformation(
+                    () -> 4 + cores.getAndIncrement(),
+                    () -> "user" + users.getAndIncrement(),
+                    () -> "FINGERPRINT-" + fingerprints.getAndIncrement(),
+                    ttl,
+                    time);
+        }
+    }
+
+    @Test
+    @DisplayName("Probes Computed Lazily Once")
+    void probe01() {
+        Probes probes = new Probes();
+        CachedSystemInformation information = probes.systemInformation(null);
+
+        Assertions.assertEquals(0, probes.cores.get());
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(4, information.cpuCoreCount());
+            Assertions.assertEquals("user0", information.osUserName());
+            Assertions.assertEquals("FINGERPRINT-0", information.fingerprint());
+        }
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(1, probes.cores.get()),
+                () -> Assertions.assertEquals(1, probes.users.get()),
+                () -> Assertions.assertEquals(1, probes.fingerprints.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Probes Computed Again After Invalidation")
+    void probe02() {
+        Probes probes = new Probes();
+        CachedSystemInformation information = probes.systemInformation(null);
+
+        Assertions.assertEquals(4, information.cpuCoreCount());
+        information.invalidate();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(5, information.cpuCoreCount()),
+                () -> Assertions.assertEquals("FINGERPRINT-0", information.fingerprint()),
+                () -> Assertions.assertEquals(2, probes.cores.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Probes Computed Again After Time to Live")
+    void probe03() {
+        Probes probes = new Probes();
+        CachedSystemInformation information = probes.systemInformation(Duration.ofMinutes(5));
+
+        Assertions.assertEquals("user0", information.osUserName());
+        probes.time.advance(Duration.ofMinutes(5).minusNanos(1));
+        Assertions.assertEquals("user0", information.osUserName());
+        probes.time.advance(Duration.ofNanos(1));
+
+        Assertions.assertEquals("user1", information.osUserName());
+    }
+
+    @Test
+    @DisplayName("Concurrent Callers Share One Computation")
+    void probe04() throws InterruptedException {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CachedValue<String> value = CachedValue.once(() -> {
+            computations.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "value";
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                value.get();
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(1, computations.get());
+    }
+
+    @Test
+    @DisplayName("Invalidation During Computation Not Lost")
+    void probe05() throws InterruptedException {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CachedValue<Integer> cores = CachedValue.once(() -> {
+            int computation = computations.getAndIncrement();
+            if (computation == 0) {
+                computing.countDown();
+                try {
+                    invalidated.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 4 + computation;
+        });
+
+        AtomicInteger seen = new AtomicInteger();
+        Thread reader = Thread.ofVirtual().start(() -> seen.set(cores.get()));
+        Assertions.assertTrue(computing.await(5, TimeUnit.SECONDS));
+        // e.g. the container was resized while the first probe ran
+        cores.invalidate();
+        invalidated.countDown();
+        reader.join();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(5, seen.get()),
+                () -> Assertions.assertEquals(5, cores.get()),
+                () -> Assertions.assertEquals(2, computations.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Non-Positive Time to Live Rejected")
+    void probe06() {
+        Probes probes = new Probes();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> probes.systemInformation(Duration.ZERO)),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new CachedSystemInformation(() -> "FINGERPRINT", Duration.ofSeconds(-1))),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> CachedValue.expiring(() -> "value", Duration.ZERO)),
+                () -> Assertions.assertEquals(0, probes.fingerprints.get())
+        );
+    }
+}
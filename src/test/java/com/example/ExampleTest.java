@@ -7,7 +7,14 @@ import java.util.Locale;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * All tests share the License singleton and its license files, so they run one
+ * at a time.
+ */
+@Execution(ExecutionMode.SAME_THREAD)
 class ExampleTest {
 
     /**
@@ -0,0 +1,112 @@
+package com.example;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FeatureIndexTest {
+
+    private final FeatureSchema schema = FeatureSchema.of(
+            "my-product-edition", "my-product-core-32", "my-product-core-1", "my-product-version", "username", "reporting", "missing");
+
+    private final FeatureIndex index = schema.compile(Map.of(
+            "my-product-edition", "Professional",
+            "my-product-core-32", "32",
+            "my-product-core-1", "1",
+            "my-product-version", "1.99",
+            "username", "abcuser",
+            "reporting", "false",
+            "not-in-schema", "ignored"));
+
+    @Test
+    @DisplayName("Feature Ids Test")
+    void schema01() {
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(0, schema.id("my-product-edition")),
+                () -> Assertions.assertEquals(-1, schema.id("not-in-schema")),
+                () -> Assertions.assertEquals("username", schema.key(schema.id("username"))),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> FeatureSchema.of("a", "a"))
+        );
+    }
+
+    @Test
+    @DisplayName("Boolean Features Test")
+    void index01() {
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(index.has(schema.id("reporting"))),
+                () -> Assertions.assertFalse(index.enabled(schema.id("reporting"))),
+                () -> Assertions.assertTrue(index.enabled(schema.id("my-product-edition"))),
+                () -> Assertions.assertFalse(index.has(schema.id("missing"))),
+                () -> Assertions.assertFalse(index.enabled(schema.id("missing"))),
+                () -> Assertions.assertFalse(index.has(schema.id("not-in-schema"))),
+                () -> Assertions.assertFalse(index.enabled(schema.id("not-in-schema")))
+        );
+    }
+
+    @Test
+    @DisplayName("Numeric Limit Features Test")
+    void index02() {
+        int core32 = schema.id("my-product-core-32");
+        int core1 = schema.id("my-product-core-1");
+        int version = schema.id("my-product-version");
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(index.withinLimit(core32, 32)),
+                () -> Assertions.assertFalse(index.withinLimit(core32, 33)),
+                () -> Assertions.assertFalse(index.withinLimit(core1, 2)),
+                () -> Assertions.assertTrue(index.withinLimit(version, 1.1)),
+                () -> Assertions.assertFalse(index.withinLimit(version, 2.0)),
+                () -> Assertions.assertFalse(index.withinLimit(schema.id("username"), 0)),
+                () -> Assertions.assertFalse(index.withinLimit(schema.id("missing"), 0)),
+                () -> Assertions.assertTrue(Double.isNaN(index.limit(schema.id("missing")))),
+                () -> Assertions.assertFalse(index.withinLimit(schema.id("not-in-schema"), 0)),
+                () -> Assertions.assertTrue(Double.isNaN(index.limit(schema.id("not-in-schema"))))
+        );
+    }
+
+    @Test
+    @DisplayName("Value Features Test")
+    void index03() {
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(index.valueEquals(schema.id("my-product-edition"), "Professional")),
+                () -> Assertions.assertFalse(index.valueEquals(schema.id("my-product-edition"), "Standard")),
+                () -> Assertions.assertFalse(index.valueEquals(schema.id("missing"), "Standard")),
+                () -> Assertions.assertEquals("abcuser", index.value(schema.id("username"))),
+                () -> Assertions.assertFalse(index.valueEquals(schema.id("not-in-schema"), "ignored")),
+                () -> Assertions.assertNull(index.value(schema.id("not-in-schema")))
+        );
+    }
+
+    @Test
+    @DisplayName("Invalid License Has No Features Test")
+    void index04() {
+        FeatureIndex invalid = schema.compile(new LicenseSnapshot(false, LicenseCodes.EXPIRED, Map.of("reporting", "true"), LicenseSnapshot.NO_EXPIRY, 0));
+
+        Assertions.assertFalse(invalid.has(schema.id("reporting")));
+    }
+
+    @Test
+    @DisplayName("Feature Checks Do Not Allocate")
+    void index05() {
+        int edition = schema.id("my-product-edition");
+        int core32 = schema.id("my-product-core-32");
+        int checks = 1_000_000;
+
+        int matched = Allocations.assertAtMost(1024, () -> {
+            int count = 0;
+            for (int i = 0; i < checks; i++) {
+                if (index.enabled(edition) && index.withinLimit(core32, i & 63)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        Assertions.assertEquals(checks / 64 * 33, matched); // i & 63 within 0..32
+    }
+}
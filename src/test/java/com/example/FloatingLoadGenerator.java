@@ -0,0 +1,193 @@
+package com.example;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulates clients contending for the seats of a floating license on a
+ * {@link LicenseServerStandIn}. Each client runs on its own virtual thread
+ * with its own fingerprint, and repeatedly acquires a seat, holds it and
+ * releases it; a client rejected with
+ * {@link LicenseCodes#MAX_USAGE_REACHED}, or failing for any other reason,
+ * backs off for a random time up to the backoff before trying again.
+ */
+final class FloatingLoadGenerator {
+
+    /**
+     * Outcome of one run.
+     *
+     * @param clients number of concurrent clients
+     * @param duration run time
+     * @param acquired validations that got a seat
+     * @param rejected validations rejected with
+     * {@link LicenseCodes#MAX_USAGE_REACHED}
+     * @param failed validations with another result or a server error
+     * @param acquireLatency latency of validations that got a seat
+     * @param maxSeatsInUse highest number of seats held at the same time, as
+     * seen by the clients from the grant until the release is confirmed; may
+     * exceed the seats by releases in flight
+     */
+    record Result(int clients, Duration duration, long acquired, long rejected, long failed, LatencyHistogram acquireLatency, int maxSeatsInUse) {
+
+        /**
+         * @return acquired seats per second
+         */
+        double throughput() {
+            return acquired * 1e9 / duration.toNanos();
+        }
+
+        /**
+         * @return rejected fraction of all validations
+         */
+        double rejectionRate() {
+            long attempts = acquired + rejected + failed;
+            return attempts == 0 ? 0 : (double) rejected / attempts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%7d %10.1f %9.1f %9.1f %9.1f %9.1f%% %7d %6d",
+                    clients, throughput(),
+                    acquireLatency.valueAtPercentile(50) / 1e6,
+                    acquireLatency.valueAtPercentile(99) / 1e6,
+                    acquireLatency.getMaxNanos() / 1e6,
+                    rejectionRate() * 100, failed, maxSeatsInUse);
+        }
+    }
+
+    private final LicenseServerStandIn server;
+    private final String licenseKey;
+    private final Duration hold;
+    private final Duration backoff;
+
+    /**
+     * @param server server defining the license
+     * @param licenseKey floating license key of
+     * {@link LicenseFixtures#PRODUCT_HASH1}
+     * @param hold time each client holds an acquired seat
+     * @param backoff maximum wait after a rejection
+     */
+    FloatingLoadGenerator(LicenseServerStandIn server, String licenseKey, Duration hold, Duration backoff) {
+        this.server = server;
+        this.licenseKey = licenseKey;
+        this.hold = hold;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Runs the given number of clients for the given time, and waits for all
+     * of them to release their seats.
+     *
+     * @param clients number of concurrent clients
+     * @param duration run time
+     * @return outcome
+     */
+    Result run(int clients, Duration duration) {
+        LongAdder acquired = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicInteger seats = new AtomicInteger();
+        LongAccumulator maxSeats = new LongAccumulator(Math::max, 0);
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                LicenseClient client = new StandInLicenseClient(server, LicenseSettings.builder()
+                        .product(LicenseFixtures.PRODUCT_HASH1)
+                        .storage(new MemoryLicenseStorage())
+                        .customFingerprint("LOAD-CLIENT-" + i)
+                        .build());
+                executor.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            LicenseSnapshot result;
+                            try {
+                                result = client.validate(licenseKey);
+                            } catch (UncheckedIOException ex) {
+                                // server unavailable, do not hammer it
+                                failed.increment();
+                                backOff();
+                                continue;
+                            }
+                            if (result.valid()) {
+                                latency.record(System.nanoTime() - begin);
+                                acquired.increment();
+                                maxSeats.accumulate(seats.incrementAndGet());
+                                try {
+                                    Thread.sleep(hold);
+                                } finally {
+                                    // the seat is held until the server released it
+                                    release(client, failed);
+                                    seats.decrementAndGet();
+                                }
+                            } else if (result.code() == LicenseCodes.MAX_USAGE_REACHED) {
+                                rejected.increment();
+                                backOff();
+                            } else {
+                                failed.increment();
+                                backOff();
+                            }
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return new Result(clients, Duration.ofNanos(System.nanoTime() - start), acquired.sum(), rejected.sum(), failed.sum(), latency, (int) maxSeats.get());
+    }
+
+    /**
+     * Runs each client count in turn.
+     *
+     * @param duration run time per client count
+     * @param clients client counts, e.g. growing
+     * @return one result per client count
+     */
+    List<Result> sweep(Duration duration, int... clients) {
+        List<Result> results = new ArrayList<>();
+        for (int count : clients) {
+            results.add(run(count, duration));
+        }
+        return results;
+    }
+
+    /**
+     * @param results results of {@link #sweep(Duration, int...)}
+     * @return table with one line per result, latencies in milliseconds
+     */
+    static String report(List<Result> results) {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%7s %10s %9s %9s %9s %10s %7s %6s",
+                "clients", "seats/s", "p50 ms", "p99 ms", "max ms", "rejected", "failed", "in use"))
+                .append(System.lineSeparator());
+        for (Result result : results) {
+            sb.append(result).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    private void backOff() throws InterruptedException {
+        Thread.sleep(ThreadLocalRandom.current().nextLong(backoff.toMillis() + 1));
+    }
+
+    private static void release(LicenseClient client, LongAdder failed) {
+        try {
+            client.invalidate();
+        } catch (UncheckedIOException ex) {
+            failed.increment();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Tag("stress")
+@ExtendWith(LicenseIsolation.class)
+class FloatingLoadTest {
+
+    @Test
+    @DisplayName("Floating Seats Never Oversubscribed Under Load")
+    void load01(LicenseServerStandIn server) {
+        FloatingLoadGenerator generator = new FloatingLoadGenerator(server, LicenseFixtures.KEY_VALID_FLOATING, Duration.ofMillis(5), Duration.ofMillis(5));
+
+        List<FloatingLoadGenerator.Result> results = generator.sweep(Duration.ofMillis(500), 1, LicenseFixtures.FLOATING_SEATS, 4 * LicenseFixtures.FLOATING_SEATS);
+        System.out.print(FloatingLoadGenerator.report(results));
+
+        FloatingLoadGenerator.Result single = results.get(0);
+        FloatingLoadGenerator.Result seats = results.get(1);
+        FloatingLoadGenerator.Result contended = results.get(2);
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(single.acquired() > 0),
+                () -> Assertions.assertEquals(0, single.rejected()),
+                () -> Assertions.assertEquals(0, seats.rejected()),
+                () -> Assertions.assertTrue(contended.rejected() > 0),
+                () -> Assertions.assertEquals(LicenseFixtures.FLOATING_SEATS, server.peakUsageCount(LicenseFixtures.KEY_VALID_FLOATING), contended::toString),
+                () -> Assertions.assertTrue(contended.maxSeatsInUse() >= LicenseFixtures.FLOATING_SEATS, contended::toString),
+                () -> Assertions.assertEquals(0, contended.failed()),
+                () -> Assertions.assertEquals(0, server.usageCount(LicenseFixtures.KEY_VALID_FLOATING))
+        );
+    }
+}
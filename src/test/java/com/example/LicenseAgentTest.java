@@ -0,0 +1,184 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseAgentTest {
+
+    @Test
+    @DisplayName("Processes Share One Activation Through the Agent")
+    void agent01(LicenseServerStandIn server, LicenseSettings.Builder settings, @TempDir Path directory) throws IOException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+
+        try (LicenseAgent agent = new LicenseAgent(status, directory.resolve("agent.sock"));
+                AgentLicenseClient first = new AgentLicenseClient(directory.resolve("agent.sock"));
+                AgentLicenseClient second = new AgentLicenseClient(directory.resolve("agent.sock"))) {
+            agent.start();
+
+            LicenseSnapshot validated = first.validate(LicenseFixtures.KEY_FEATURES);
+            LicenseSnapshot shared = second.snapshot();
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(validated.valid()),
+                    () -> Assertions.assertEquals(validated, shared),
+                    () -> Assertions.assertEquals(LicenseFixtures.FEATURES, shared.features()),
+                    () -> Assertions.assertEquals(shared, second.status()),
+                    () -> Assertions.assertEquals(1, server.usageCount(LicenseFixtures.KEY_FEATURES)),
+                    () -> Assertions.assertEquals(1, server.requestCount()),
+                    () -> Assertions.assertEquals(2, agent.connections())
+            );
+
+            Assertions.assertFalse(second.invalidate().valid());
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertFalse(first.snapshot().valid()),
+                    () -> Assertions.assertEquals(0, server.usageCount(LicenseFixtures.KEY_FEATURES))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Status Queries Answered Locally")
+    void agent02(LicenseServerStandIn server, LicenseSettings.Builder settings, @TempDir Path directory) throws IOException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        LatencyHistogram latency = new LatencyHistogram();
+
+        try (LicenseAgent agent = new LicenseAgent(status, directory.resolve("agent.sock"));
+                AgentLicenseClient client = new AgentLicenseClient(agent.socket())) {
+            agent.start();
+            for (int i = 0; i < 10_000; i++) {
+                long start = System.nanoTime();
+                Assertions.assertTrue(client.snapshot().valid());
+                latency.record(System.nanoTime() - start);
+            }
+        }
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(1, server.requestCount()),
+                () -> Assertions.assertTrue(latency.getP50Nanos() < 1_000_000,
+                        () -> String.format(Locale.ROOT, "agent status query: p50 %.1f us, p99 %.1f us", latency.getP50Nanos() / 1e3, latency.getP99Nanos() / 1e3))
+        );
+    }
+
+    @Test
+    @DisplayName("Concurrent Revalidations Share One Validation")
+    void agent03(LicenseServerStandIn server, LicenseSettings.Builder settings, @TempDir Path directory) throws IOException, InterruptedException, ExecutionException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        status.validate(LicenseFixtures.KEY_VALID_FLOATING);
+        server.latency(Duration.ofMillis(200));
+
+        List<AgentLicenseClient> clients = new ArrayList<>();
+        List<Future<LicenseSnapshot>> results = new ArrayList<>();
+        try (LicenseAgent agent = new LicenseAgent(status, directory.resolve("agent.sock"))) {
+            agent.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 10; i++) {
+                    AgentLicenseClient client = new AgentLicenseClient(agent.socket());
+                    clients.add(client);
+                    results.add(executor.submit(() -> client.validate()));
+                }
+            }
+            for (AgentLicenseClient client : clients) {
+                client.close();
+            }
+        }
+
+        for (Future<LicenseSnapshot> result : results) {
+            Assertions.assertTrue(result.get().valid());
+        }
+        // 1 activation, then at most one validation in flight and one started after it
+        Assertions.assertTrue(server.requestCount() <= 3, "requests " + server.requestCount());
+    }
+
+    @Test
+    @DisplayName("Agent Failures Reported and Agent Restart Survived")
+    void agent04(LicenseServerStandIn server, LicenseSettings.Builder settings, @TempDir Path directory) throws IOException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        Path socket = directory.resolve("agent.sock");
+
+        try (AgentLicenseClient client = new AgentLicenseClient(socket)) {
+            Assertions.assertThrows(UncheckedIOException.class, client::snapshot, "no agent");
+
+            try (LicenseAgent agent = new LicenseAgent(status, socket)) {
+                agent.start();
+                Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+
+                server.errorRate(1);
+                UncheckedIOException ex = Assertions.assertThrows(UncheckedIOException.class, client::validate);
+                Assertions.assertEquals("license agent: license server returned HTTP 503", ex.getCause().getMessage());
+                Assertions.assertTrue(client.snapshot().valid(), "connection still usable");
+            }
+            Assertions.assertFalse(Files.exists(socket));
+
+            server.errorRate(0);
+            try (LicenseAgent restarted = new LicenseAgent(status, socket)) {
+                restarted.start();
+                Assertions.assertTrue(client.snapshot().valid());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Running Agent Kept and Stale Socket Replaced")
+    void agent05(LicenseServerStandIn server, LicenseSettings.Builder settings, @TempDir Path directory) throws IOException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        Path socket = directory.resolve("agent").resolve("agent.sock");
+        // e.g. created by a license file store with default permissions
+        Files.createDirectories(socket.getParent(), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-xr-x")));
+
+        try (LicenseAgent agent = new LicenseAgent(status, socket);
+                AgentLicenseClient client = new AgentLicenseClient(socket)) {
+            agent.start();
+            try (LicenseAgent second = new LicenseAgent(status, socket)) {
+                IOException ex = Assertions.assertThrows(IOException.class, second::start);
+                Assertions.assertTrue(ex.getMessage().startsWith("license agent already running"), ex.getMessage());
+            }
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(PosixFilePermissions.fromString("rwx------"), Files.getPosixFilePermissions(socket.getParent())),
+                    () -> Assertions.assertTrue(client.snapshot().valid())
+            );
+        }
+
+        // left behind by an agent that did not shut down
+        try (ServerSocketChannel stale = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            stale.bind(UnixDomainSocketAddress.of(socket));
+        }
+        try (AgentLicenseClient client = new AgentLicenseClient(socket)) {
+            try (LicenseAgent agent = new LicenseAgent(status, socket)) {
+                agent.start();
+                Assertions.assertTrue(client.snapshot().valid());
+            }
+            try (LicenseAgent restarted = new LicenseAgent(status, socket)) {
+                restarted.start();
+                // the agent may have run it before the connection broke
+                Assertions.assertThrows(UncheckedIOException.class, client::invalidate, "not sent again");
+                Assertions.assertTrue(client.snapshot().valid());
+            }
+        }
+    }
+}
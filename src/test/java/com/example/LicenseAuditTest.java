@@ -0,0 +1,182 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseAuditTest {
+
+    @Test
+    @DisplayName("Audit Results Streamed as CSV")
+    void audit01(LicenseServerStandIn server) throws IOException, InterruptedException {
+        String keys = String.join("\n",
+                "# customer keys",
+                LicenseFixtures.KEY_VALID_NODELOCKED,
+                "",
+                LicenseFixtures.KEY_EXPIRED,
+                "  " + LicenseFixtures.KEY_DISABLED + "  ",
+                LicenseFixtures.KEY_NOT_FOUND,
+                "NOT,A KEY");
+        StringWriter out = new StringWriter();
+
+        LicenseAudit.Summary summary = new LicenseAudit(() -> client(server), 2, LicenseAudit.Format.CSV)
+                .run(new StringReader(keys), out);
+
+        List<String> lines = out.toString().lines().toList();
+        List<String> results = lines.subList(1, lines.size()).stream()
+                .sorted(Comparator.comparingInt(line -> Integer.parseInt(line.substring(0, line.indexOf(',')))))
+                .toList();
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals("line,key,valid,code,status,error", lines.get(0)),
+                () -> Assertions.assertEquals(List.of(
+                        "2," + LicenseFixtures.KEY_VALID_NODELOCKED + ",true,0,VALID,",
+                        "4," + LicenseFixtures.KEY_EXPIRED + ",false,3004,EXPIRED,",
+                        "5," + LicenseFixtures.KEY_DISABLED + ",false,3007,DISABLED,",
+                        "6," + LicenseFixtures.KEY_NOT_FOUND + ",false,3006,NOT_FOUND,",
+                        "7,\"NOT,A KEY\",false,1005,INVALID_KEY_FORMAT,"), results),
+                () -> Assertions.assertEquals(5, summary.keys()),
+                () -> Assertions.assertEquals(1L, summary.codes().get(LicenseCodes.VALID)),
+                () -> Assertions.assertEquals(0, summary.errors()),
+                () -> Assertions.assertEquals(0, server.usageCount(LicenseFixtures.KEY_VALID_NODELOCKED)),
+                () -> Assertions.assertEquals(5, server.requestCount(), "4 validations and 1 invalidation")
+        );
+    }
+
+    @Test
+    @DisplayName("Audit Results Streamed as JSON Lines")
+    void audit02(LicenseServerStandIn server) throws IOException, InterruptedException {
+        server.errorRate(1);
+        StringWriter out = new StringWriter();
+
+        LicenseAudit.Summary summary = new LicenseAudit(() -> client(server), 2, LicenseAudit.Format.JSON)
+                .run(new StringReader(LicenseFixtures.KEY_EXPIRED + "\n\"bad\"\n"), out);
+
+        List<String> lines = out.toString().lines().sorted().toList();
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(List.of(
+                        "{\"line\":1,\"key\":\"" + LicenseFixtures.KEY_EXPIRED + "\",\"status\":\"ERROR\",\"error\":\"license server returned HTTP 503\"}",
+                        "{\"line\":2,\"key\":\"\\\"bad\\\"\",\"valid\":false,\"code\":1005,\"status\":\"INVALID_KEY_FORMAT\"}"), lines),
+                () -> Assertions.assertEquals(1, summary.errors())
+        );
+    }
+
+    @Test
+    @DisplayName("Audit Concurrency Bounded for Large Inputs")
+    void audit03() throws IOException, InterruptedException {
+        int keys = 20_000;
+        AtomicInteger running = new AtomicInteger();
+        LongAccumulator maxRunning = new LongAccumulator(Math::max, 0);
+        LicenseClient client = new LicenseClient() {
+            @Override
+            public LicenseSnapshot validate(String licenseKey) {
+                maxRunning.accumulate(running.incrementAndGet());
+                Thread.yield();
+                running.decrementAndGet();
+                return LicenseSnapshot.invalid(LicenseCodes.NOT_FOUND, 0);
+            }
+
+            @Override
+            public LicenseSnapshot validate() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public LicenseSnapshot invalidate() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public LicenseSnapshot status() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        AtomicInteger written = new AtomicInteger();
+
+        LicenseAudit.Summary summary = new LicenseAudit(() -> client, 8, LicenseAudit.Format.CSV)
+                .run(new GeneratedKeys(keys), new Writer() {
+                    @Override
+                    public void write(char[] buffer, int offset, int length) {
+                        for (int i = offset; i < offset + length; i++) {
+                            if (buffer[i] == '\n') {
+                                written.incrementAndGet();
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(keys, summary.keys()),
+                () -> Assertions.assertEquals((long) keys, summary.codes().get(LicenseCodes.NOT_FOUND)),
+                () -> Assertions.assertEquals(keys + 1, written.get()),
+                () -> Assertions.assertTrue(maxRunning.get() <= 8, "running " + maxRunning.get())
+        );
+    }
+
+    /**
+     * Called from the checking threads, so each client gets its own settings
+     * and storage.
+     */
+    private static LicenseClient client(LicenseServerStandIn server) {
+        return new StandInLicenseClient(server, LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .storage(new MemoryLicenseStorage())
+                .build());
+    }
+
+    /**
+     * Generates license keys on the fly, so that the input is never held in
+     * memory.
+     */
+    private static final class GeneratedKeys extends Reader {
+
+        private final int keys;
+        private int key;
+        private char[] line = new char[0];
+        private int position;
+
+        GeneratedKeys(int keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == line.length) {
+                if (key == keys) {
+                    return -1;
+                }
+                line = String.format("AUDIT-KEY-%08d%n", key++).toCharArray();
+                position = 0;
+            }
+            int count = Math.min(length, line.length - position);
+            System.arraycopy(line, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
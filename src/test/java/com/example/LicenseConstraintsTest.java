@@ -0,0 +1,123 @@
+package com.example;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseConstraintsTest {
+
+    private final ConstraintSchema schema = ConstraintSchema.builder()
+            .versionAtMost("my-product-version")
+            .numericAtMost("my-product-core-32")
+            .numericAtMost("my-product-core-1")
+            .equalTo("username")
+            .equalTo("missing")
+            .build();
+
+    private final LicenseConstraints constraints = schema.compile(
+            new LicenseSnapshot(true, LicenseCodes.VALID, LicenseFixtures.FEATURES, LicenseSnapshot.NO_EXPIRY, 0));
+
+    @Test
+    @DisplayName("Version Constraint Test")
+    void constraints01() {
+        int version = schema.id("my-product-version");
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(constraints.test(version, "1.1")),
+                () -> Assertions.assertTrue(constraints.test(version, "1.99")),
+                () -> Assertions.assertTrue(constraints.test(version, "1.99.0")),
+                () -> Assertions.assertTrue(constraints.test(version, "1")),
+                () -> Assertions.assertTrue(constraints.test(version, "0.100")),
+                () -> Assertions.assertFalse(constraints.test(version, "1.100"), "1.100 is after 1.99"),
+                () -> Assertions.assertFalse(constraints.test(version, "1.99.1")),
+                () -> Assertions.assertFalse(constraints.test(version, "2.0")),
+                () -> Assertions.assertFalse(constraints.test(version, "")),
+                () -> Assertions.assertFalse(constraints.test(version, "1.")),
+                () -> Assertions.assertFalse(constraints.test(version, "1.x")),
+                () -> Assertions.assertFalse(constraints.test(version, "99999999999")),
+                () -> Assertions.assertFalse(FeatureConstraint.versionAtMost("latest").test("1.0")),
+                () -> Assertions.assertEquals("version <= 1.99", constraints.constraint(version).toString())
+        );
+    }
+
+    @Test
+    @DisplayName("Numeric and Value Constraints Test")
+    void constraints02() {
+        int core32 = schema.id("my-product-core-32");
+        int core1 = schema.id("my-product-core-1");
+        int username = schema.id("username");
+        int missing = schema.id("missing");
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(constraints.test(core32, 32)),
+                () -> Assertions.assertFalse(constraints.test(core32, 33)),
+                () -> Assertions.assertTrue(constraints.test(core1, "1")),
+                () -> Assertions.assertFalse(constraints.test(core1, "2")),
+                () -> Assertions.assertFalse(constraints.test(core1, "one")),
+                () -> Assertions.assertTrue(constraints.test(username, "abcuser")),
+                () -> Assertions.assertFalse(constraints.test(username, "otheruser")),
+                () -> Assertions.assertTrue(constraints.test(missing, "anything"), "not licensed, not restricted"),
+                () -> Assertions.assertEquals(LicenseCodes.VALID, constraints.check(Map.of("my-product-version", "1.1", "my-product-core-32", 8, "not-in-schema", "x"))),
+                () -> Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, constraints.check(Map.of("my-product-core-1", 2)))
+        );
+    }
+
+    @Test
+    @DisplayName("Inputs Re-Evaluated Without Revalidation")
+    void constraints03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        StandInLicenseClient client = new StandInLicenseClient(server, settings.feature("my-product-version", "1.1").build());
+        LicenseConstraints compiled = schema.compile(client.validate(LicenseFixtures.KEY_FEATURES));
+
+        // same outcome as version01/version02 and core01/core02, with one validation
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(LicenseCodes.VALID, compiled.check(Map.of("my-product-version", "1.1"))),
+                () -> Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, compiled.check(Map.of("my-product-version", "2.0"))),
+                () -> Assertions.assertEquals(LicenseCodes.VALID, compiled.check(Map.of("my-product-core-32", 16))),
+                () -> Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, compiled.check(Map.of("my-product-core-1", 16))),
+                () -> Assertions.assertEquals(1, server.requestCount())
+        );
+
+        // the server compares versions as decimal numbers, where 1.100 is before 1.99
+        StandInLicenseClient patch = new StandInLicenseClient(server, settings.feature("my-product-version", "1.100").build());
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(patch.validate(LicenseFixtures.KEY_FEATURES).valid()),
+                () -> Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, compiled.check(Map.of("my-product-version", "1.100")))
+        );
+
+        LicenseConstraints invalid = schema.compile(LicenseSnapshot.invalid(LicenseCodes.EXPIRED, 0));
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(invalid.test(schema.id("missing"), "anything")),
+                () -> Assertions.assertFalse(invalid.test(schema.id("my-product-core-32"), 1)),
+                () -> Assertions.assertEquals(LicenseCodes.EXPIRED, invalid.check(Map.of()))
+        );
+    }
+
+    @Test
+    @DisplayName("Constraint Checks Do Not Allocate")
+    void constraints04() {
+        int version = schema.id("my-product-version");
+        int core32 = schema.id("my-product-core-32");
+        String[] versions = {"1.1", "1.99", "2.0", "1.100"};
+        int checks = 1_000_000;
+
+        int matched = Allocations.assertAtMost(1024, () -> {
+            int count = 0;
+            for (int i = 0; i < checks; i++) {
+                if (constraints.test(version, versions[i & 3]) && constraints.test(core32, i & 63)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        Assertions.assertEquals(checks / 64 * 17, matched); // i & 63 within 0..32 and i & 3 within 0..1
+    }
+}
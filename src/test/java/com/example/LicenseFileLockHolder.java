@@ -0,0 +1,33 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Child process holding the exclusive lock of a {@link LicenseFileStore}, as
+ * a writer in another process would, until its standard input is closed.
+ */
+final class LicenseFileLockHolder {
+
+    private LicenseFileLockHolder() {
+    }
+
+    /**
+     * @param args path of the license file
+     * @throws IOException if the lock file cannot be locked
+     */
+    public static void main(String[] args) throws IOException {
+        LicenseFileStore store = new LicenseFileStore(Path.of(args[0]));
+        Path lockFile = store.path().resolveSibling(store.path().getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.lock();
+            System.out.println("locked");
+            System.out.flush();
+            while (System.in.read() >= 0) {
+                // hold the lock until the parent closes the pipe
+            }
+        }
+    }
+}
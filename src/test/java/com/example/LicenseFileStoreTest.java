@@ -0,0 +1,193 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LicenseFileStoreTest {
+
+    @Test
+    @DisplayName("Write, Read and Delete License File")
+    void store01(@TempDir Path directory) throws IOException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve(".11DE9AB9").resolve("license.l4j"));
+
+        Assertions.assertNull(store.read());
+
+        store.write("first".getBytes(StandardCharsets.UTF_8));
+        store.write("second".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertEquals("second", new String(store.read(), StandardCharsets.UTF_8));
+        Assertions.assertTrue(store.delete());
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(Files.exists(store.path())),
+                () -> Assertions.assertNull(store.map()),
+                () -> Assertions.assertFalse(store.delete())
+        );
+    }
+
+    @Test
+    @DisplayName("No Temporary Files Left Behind")
+    void store02(@TempDir Path directory) throws IOException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+
+        for (int i = 0; i < 10; i++) {
+            store.write(new byte[1024]);
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(List.of("license.l4j", "license.l4j.lock"), files.map(file -> file.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Mapped Buffer Survives File Replacement")
+    void store03(@TempDir Path directory) throws IOException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        store.write("first".getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer mapped = store.map();
+        store.write("replaced".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertEquals("first", StandardCharsets.UTF_8.decode(mapped).toString());
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers and Readers Never See Partial Files")
+    void store04(@TempDir Path directory) throws InterruptedException {
+        Path file = directory.resolve("license.l4j");
+        byte[][] contents = {filled('A', 64 * 1024), filled('B', 16 * 1024)};
+        AtomicInteger torn = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int writer = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                // separate instances share one in-process lock, so this covers the
+                // atomic rename, see store05 for the file lock between processes
+                LicenseFileStore store = new LicenseFileStore(file);
+                try {
+                    for (int i = 0; i < 50; i++) {
+                        if (writer % 2 == 0) {
+                            store.write(contents[(writer / 2 + i) % 2]);
+                        } else {
+                            byte[] data = store.read();
+                            if (data != null && !isUniform(data)) {
+                                torn.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (IOException ex) {
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(0, failures.get());
+        Assertions.assertEquals(0, torn.get());
+    }
+
+    private static byte[] filled(char c, int length) {
+        byte[] data = new byte[length];
+        Arrays.fill(data, (byte) c);
+        return data;
+    }
+
+    private static boolean isUniform(byte[] data) {
+        int expectedLength = data[0] == 'A' ? 64 * 1024 : 16 * 1024;
+        if (data.length != expectedLength) {
+            return false;
+        }
+        for (byte b : data) {
+            if (b != data[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    @DisplayName("Lock Held by Another Process Blocks Readers and Writers")
+    void store05(@TempDir Path directory) throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        store.write("first".getBytes(StandardCharsets.UTF_8));
+        Process holder = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                LicenseFileLockHolder.class.getName(),
+                store.path().toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            BufferedReader output = new BufferedReader(new InputStreamReader(holder.getInputStream(), StandardCharsets.UTF_8));
+            Assertions.assertEquals("locked", executor.submit(output::readLine).get(30, TimeUnit.SECONDS));
+
+            Future<byte[]> read = executor.submit(store::read);
+            Future<?> write = executor.submit(() -> {
+                store.write("second".getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+            Thread.sleep(300);
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertFalse(read.isDone()),
+                    () -> Assertions.assertFalse(write.isDone())
+            );
+
+            holder.getOutputStream().close();
+            read.get(10, TimeUnit.SECONDS);
+            write.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals("second", new String(store.read(), StandardCharsets.UTF_8));
+        } finally {
+            holder.destroy();
+            holder.waitFor();
+        }
+    }
+
+    @Test
+    @DisplayName("Reading and Deleting a Missing License File Creates Nothing")
+    void store06(@TempDir Path directory) throws IOException {
+        Path home = directory.resolve(".11DE9AB9");
+        LicenseFileStore store = new LicenseFileStore(home.resolve("license.l4j"));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertNull(store.read()),
+                () -> Assertions.assertNull(store.map()),
+                () -> Assertions.assertFalse(store.delete()),
+                () -> Assertions.assertFalse(Files.exists(home))
+        );
+
+        Files.createDirectories(home);
+        Files.write(store.path(), "copied".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals("copied", new String(store.read(), StandardCharsets.UTF_8)),
+                () -> Assertions.assertFalse(Files.exists(home.resolve("license.l4j.lock")))
+        );
+    }
+}
@@ -0,0 +1,209 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LicenseFileWatcherTest {
+
+    private static final Duration DEBOUNCE = Duration.ofMillis(100);
+
+    @Test
+    @DisplayName("Burst of Changes Revalidated Once")
+    void watch01(@TempDir Path directory) throws IOException, InterruptedException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        FileClient client = new FileClient(store, false);
+
+        try (LicenseFileWatcher watcher = new LicenseFileWatcher(new CachedLicenseStatus(client), store, DEBOUNCE)) {
+            watcher.start();
+            for (int i = 0; i < 20; i++) {
+                store.write(("license " + i).getBytes(StandardCharsets.UTF_8));
+            }
+
+            Assertions.assertTrue(client.validated.tryAcquire(10, TimeUnit.SECONDS));
+            Assertions.assertFalse(client.validated.tryAcquire(5 * DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(1, client.validations.get());
+        }
+    }
+
+    @Test
+    @DisplayName("Deleted License File Revalidated")
+    void watch02(@TempDir Path directory) throws IOException, InterruptedException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        store.write("license".getBytes(StandardCharsets.UTF_8));
+        FileClient client = new FileClient(store, false);
+        CachedLicenseStatus status = new CachedLicenseStatus(client);
+        status.validate();
+        client.validated.drainPermits();
+
+        try (LicenseFileWatcher watcher = new LicenseFileWatcher(status, store, DEBOUNCE)) {
+            watcher.start();
+            store.delete();
+
+            Assertions.assertTrue(client.validated.tryAcquire(10, TimeUnit.SECONDS));
+            // the client returns before the status publishes its result
+            for (int i = 0; i < 100 && status.isValid(); i++) {
+                Thread.sleep(10);
+            }
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertFalse(status.isValid()),
+                    () -> Assertions.assertEquals(LicenseCodes.NOT_VALIDATED, status.code()),
+                    () -> Assertions.assertTrue(watcher.isWatching())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Unchanged Contents and Own Saves Not Revalidated")
+    void watch03(@TempDir Path directory) throws IOException, InterruptedException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        store.write("license".getBytes(StandardCharsets.UTF_8));
+        FileClient client = new FileClient(store, true);
+
+        try (LicenseFileWatcher watcher = new LicenseFileWatcher(new CachedLicenseStatus(client), store, DEBOUNCE)) {
+            watcher.start();
+            store.write("license".getBytes(StandardCharsets.UTF_8));
+            Files.writeString(directory.resolve("unrelated.txt"), "unrelated");
+            Assertions.assertFalse(client.validated.tryAcquire(5 * DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS));
+
+            // the revalidation saves new license data, which must not trigger another one
+            store.write("replaced".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertTrue(client.validated.tryAcquire(10, TimeUnit.SECONDS));
+            Assertions.assertFalse(client.validated.tryAcquire(5 * DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS));
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(1, client.validations.get()),
+                    () -> Assertions.assertNull(watcher.lastFailure())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Removed License Directory Revalidated")
+    void watch04(@TempDir Path directory) throws IOException, InterruptedException {
+        Path usb = Files.createDirectory(directory.resolve("usb"));
+        LicenseFileStore store = new LicenseFileStore(usb.resolve("license.l4j"));
+        store.write("license".getBytes(StandardCharsets.UTF_8));
+        FileClient client = new FileClient(store, false);
+        CachedLicenseStatus status = new CachedLicenseStatus(client);
+
+        try (LicenseFileWatcher watcher = new LicenseFileWatcher(status, store, DEBOUNCE)) {
+            watcher.start();
+            store.delete();
+            Files.delete(usb.resolve("license.l4j.lock"));
+            Files.delete(usb);
+
+            Assertions.assertTrue(client.validated.tryAcquire(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 100 && watcher.isWatching(); i++) {
+                client.validated.tryAcquire(100, TimeUnit.MILLISECONDS);
+            }
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertFalse(watcher.isWatching()),
+                    () -> Assertions.assertEquals(LicenseCodes.NOT_VALIDATED, status.code())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Write Right After Own Save Revalidated")
+    void watch05(@TempDir Path directory) throws IOException, InterruptedException {
+        LicenseFileStore store = new LicenseFileStore(directory.resolve("license.l4j"));
+        store.write("license".getBytes(StandardCharsets.UTF_8));
+        FileClient client = new FileClient(store, true);
+        AtomicBoolean written = new AtomicBoolean();
+        client.afterSave = () -> {
+            if (written.compareAndSet(false, true)) {
+                // another writer, before the watcher reads the saved license data back
+                Thread writer = Thread.ofPlatform().start(() -> {
+                    try {
+                        store.write("external".getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                try {
+                    writer.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        try (LicenseFileWatcher watcher = new LicenseFileWatcher(new CachedLicenseStatus(client), store, DEBOUNCE)) {
+            watcher.start();
+            store.write("replaced".getBytes(StandardCharsets.UTF_8));
+
+            Assertions.assertTrue(client.validated.tryAcquire(2, 10, TimeUnit.SECONDS));
+            Assertions.assertFalse(client.validated.tryAcquire(5 * DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(2, client.validations.get());
+        }
+    }
+
+    /**
+     * Valid while the license file exists; optionally saves new license data
+     * on every validation, as the licensing library does.
+     */
+    private static final class FileClient implements LicenseClient {
+
+        private final LicenseFileStore store;
+        private final boolean save;
+        private final AtomicInteger validations = new AtomicInteger();
+        private final Semaphore validated = new Semaphore(0);
+
+        private volatile Runnable afterSave = () -> {
+        };
+
+        FileClient(LicenseFileStore store, boolean save) {
+            this.store = store;
+            this.save = save;
+        }
+
+        @Override
+        public LicenseSnapshot validate(String licenseKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LicenseSnapshot validate() {
+            try {
+                byte[] data = store.read();
+                int count = validations.incrementAndGet();
+                if (data != null && save) {
+                    store.write(("saved " + count).getBytes(StandardCharsets.UTF_8));
+                    afterSave.run();
+                }
+                return data != null
+                        ? new LicenseSnapshot(true, LicenseCodes.VALID, Map.of(), LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis())
+                        : LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            } finally {
+                validated.release();
+            }
+        }
+
+        @Override
+        public LicenseSnapshot invalidate() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public LicenseSnapshot status() {
+            return LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, 0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example;
+
+import java.util.Map;
+
+/**
+ * Products and license keys of ExampleTest, served by
+ * {@link LicenseServerStandIn#withExampleFixtures()}.
+ */
+final class LicenseFixtures {
+
+    /**
+     * "Example Product 1" hash value.
+     */
+    static final String PRODUCT_HASH1 = "11DE9AB9EF29E3CA2B68521D4AACC2A7";
+
+    /**
+     * "Example Product 2" hash value, disabled on the stand-in server.
+     */
+    static final String PRODUCT_HASH2 = "22DA9CD9EF29E3C04551021A4AA7D2B6";
+
+    /**
+     * A valid node-locked type license, max allowed usage is 1.
+     */
+    static final String KEY_VALID_NODELOCKED = "12345-67890-ABCDE-12345";
+
+    /**
+     * A valid floating type license.
+     */
+    static final String KEY_VALID_FLOATING = "54321-67890-ABCDE-12345";
+
+    /**
+     * Number of concurrent usages allowed for {@link #KEY_VALID_FLOATING}.
+     */
+    static final int FLOATING_SEATS = 5;
+
+    /**
+     * This license key has expired.
+     */
+    static final String KEY_EXPIRED = "78912-67890-ABCDE-12345";
+
+    /**
+     * Max allowed usage is 1, and another device has already validated it.
+     */
+    static final String KEY_MAX_USAGE_REACHED = "85296-67890-ABCDE-12345";
+
+    /**
+     * Node-locked license with {@link #FEATURES}.
+     */
+    static final String KEY_FEATURES = "22336-78900-QWERT-12345";
+
+    /**
+     * This license is disabled on the server.
+     */
+    static final String KEY_DISABLED = "ABCDE-12345-QWERT-82821";
+
+    /**
+     * The product associated with this license is disabled on the server.
+     */
+    static final String KEY_VALID_PRODUCT_DISABLED = "MNBVC-12345-81021-81801";
+
+    /**
+     * Well-formed license key which does not exist on the server.
+     */
+    static final String KEY_NOT_FOUND = "THIS-IS-AN-INVALID-LICENSE-KEY";
+
+    /**
+     * Features of {@link #KEY_FEATURES}.
+     */
+    static final Map<String, String> FEATURES = Map.of(
+            "username", "abcuser",
+            "my-product-edition", "Professional",
+            "AnyFeatureKey", "anything1",
+            "my-product-core-1", "1",
+            "my-product-core-32", "32",
+            "my-product-version", "1.99");
+
+    private LicenseFixtures() {
+    }
+}
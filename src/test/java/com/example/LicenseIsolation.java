@@ -0,0 +1,63 @@
+package com.example;
+
+import java.io.IOException;
+import java.util.UUID;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Gives each test its own license environment, so that tests can run in
+ * parallel. Resolves test method parameters of type:
+ *
+ * <ul>
+ * <li>{@link LicenseServerStandIn}: a stand-in server with the ExampleTest
+ * fixtures, so usage counts are not shared with other tests,</li>
+ * <li>{@link LicenseSettings.Builder}: settings for
+ * {@link LicenseFixtures#PRODUCT_HASH1} with a {@link MemoryLicenseStorage},
+ * so tests do not touch the filesystem, and a unique custom fingerprint.</li>
+ * </ul>
+ *
+ * Servers are closed after the test.
+ */
+final class LicenseIsolation implements ParameterResolver {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(LicenseIsolation.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Class<?> type = parameterContext.getParameter().getType();
+        return type == LicenseServerStandIn.class || type == LicenseSettings.Builder.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+        if (parameterContext.getParameter().getType() == LicenseServerStandIn.class) {
+            return store.getOrComputeIfAbsent(Server.class, key -> new Server(), Server.class).server;
+        }
+        return LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .storage(new MemoryLicenseStorage())
+                .customFingerprint("TEST-" + UUID.randomUUID());
+    }
+
+    private static final class Server implements ExtensionContext.Store.CloseableResource {
+
+        private final LicenseServerStandIn server;
+
+        Server() {
+            try {
+                server = LicenseServerStandIn.withExampleFixtures();
+            } catch (IOException ex) {
+                throw new ParameterResolutionException("cannot start license server stand-in", ex);
+            }
+        }
+
+        @Override
+        public void close() {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseKeysTest {
+
+    @Test
+    @DisplayName("Well-Formed License Keys Test")
+    void key01() {
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(LicenseKeys.isWellFormed(LicenseFixtures.KEY_VALID_NODELOCKED)),
+                () -> Assertions.assertTrue(LicenseKeys.isWellFormed("ABCDE-1234")),
+                () -> Assertions.assertTrue(LicenseKeys.isWellFormed("A".repeat(255))),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("ABCDE 12345")),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("abcde-12345")),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("ABCDE_12345")),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("ABCDE-123")),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("A".repeat(256))),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed("")),
+                () -> Assertions.assertFalse(LicenseKeys.isWellFormed(null))
+        );
+    }
+
+    @Test
+    @DisplayName("Malformed Keys Rejected Without Server Round Trip")
+    void key02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new PrevalidatingLicenseClient(new StandInLicenseClient(server, settings.build()));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, client.validate("ABCDE 12345").code()),
+                () -> Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, client.validate("ABCDE").code()),
+                () -> Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, client.status().code()),
+                () -> Assertions.assertEquals(0, server.requestCount())
+        );
+
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+        Assertions.assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    @DisplayName("Rejection Does Not Allocate")
+    void key03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new PrevalidatingLicenseClient(new StandInLicenseClient(server, settings.build()));
+        String[] garbage = {"ABCDE 12345", "abcdefghijkl", "SHORT", "1234567890-".repeat(30)};
+
+        int rejected = Allocations.assertAtMost(1024, () -> {
+            int count = 0;
+            for (int i = 0; i < 1_000_000; i++) {
+                if (!client.validate(garbage[i & 3]).valid()) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        Assertions.assertEquals(1_000_000, rejected);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example;
+
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseMetricsTest {
+
+    @Test
+    @DisplayName("Histogram Percentiles Within Bucket Precision")
+    void metrics01() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(100_000, histogram.getCount()),
+                () -> Assertions.assertEquals(50_000.5, histogram.getMeanNanos(), 0.001),
+                () -> Assertions.assertEquals(50_000, histogram.getP50Nanos(), 50_000 / 32),
+                () -> Assertions.assertEquals(99_000, histogram.getP99Nanos(), 99_000 / 32),
+                () -> Assertions.assertEquals(100_000, histogram.getMaxNanos()),
+                () -> Assertions.assertEquals(100_000, histogram.valueAtPercentile(100))
+        );
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+            long highest = LatencyHistogram.highestValue(LatencyHistogram.index(value));
+            Assertions.assertTrue(highest >= value && highest - value <= value / 32, value + " in bucket up to " + highest);
+        }
+    }
+
+    @Test
+    @DisplayName("Status Codes and Phases Recorded")
+    void metrics02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseMetrics metrics = new LicenseMetrics();
+        LicenseClient network = new InstrumentedLicenseClient(new StandInLicenseClient(server, settings.build()), metrics, LicenseMetrics.Phase.NETWORK);
+        LicenseClient client = new InstrumentedLicenseClient(new PrevalidatingLicenseClient(network), metrics);
+
+        client.validate(LicenseFixtures.KEY_EXPIRED);
+        client.validate("ABCDE 12345");
+        client.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        client.invalidate();
+        server.errorRate(1);
+        Assertions.assertThrows(UncheckedIOException.class, () -> client.validate(LicenseFixtures.KEY_VALID_NODELOCKED));
+
+        LatencyHistogram total = metrics.histogram(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.TOTAL);
+        LatencyHistogram local = metrics.histogram(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.LOCAL);
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(4, total.getCount()),
+                () -> Assertions.assertEquals(4, local.getCount()),
+                () -> Assertions.assertEquals(3, metrics.histogram(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.NETWORK).getCount()),
+                () -> Assertions.assertEquals(1, metrics.histogram(LicenseMetrics.Operation.INVALIDATE, LicenseMetrics.Phase.TOTAL).getCount()),
+                () -> Assertions.assertTrue(local.getMaxNanos() <= total.getMaxNanos()),
+                () -> Assertions.assertEquals(1, metrics.codeCount(LicenseCodes.EXPIRED)),
+                () -> Assertions.assertEquals(1, metrics.codeCount(LicenseCodes.INVALID_KEY_FORMAT)),
+                () -> Assertions.assertEquals(1, metrics.codeCount(LicenseCodes.VALID)),
+                () -> Assertions.assertEquals(1, metrics.codeCount(LicenseCodes.NOT_VALIDATED)),
+                () -> Assertions.assertEquals(1, metrics.failureCount(LicenseMetrics.Operation.VALIDATE))
+        );
+    }
+
+    @Test
+    @DisplayName("Metrics Published as MXBeans")
+    void metrics03() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        String name = "test-" + UUID.randomUUID();
+        ObjectName validate = new ObjectName("com.example:type=LicenseMetrics,name=" + ObjectName.quote(name) + ",operation=validate,phase=total");
+        ObjectName codes = new ObjectName("com.example:type=LicenseMetrics,name=" + ObjectName.quote(name) + ",codes=status");
+
+        try (LicenseMetrics metrics = new LicenseMetrics().register(name)) {
+            metrics.record(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.TOTAL, 2_000_000);
+            metrics.count(LicenseCodes.MAX_USAGE_REACHED);
+            metrics.count(9999);
+
+            LicenseMetrics.StatusCodesMXBean status = JMX.newMXBeanProxy(server, codes, LicenseMetrics.StatusCodesMXBean.class);
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(1L, server.getAttribute(validate, "Count")),
+                    () -> Assertions.assertEquals(2_000_000L, server.getAttribute(validate, "MaxNanos")),
+                    () -> Assertions.assertEquals(1L, status.getCodes().get("3008")),
+                    () -> Assertions.assertEquals(1L, status.getCodes().get("other")),
+                    () -> Assertions.assertThrows(IllegalStateException.class, () -> new LicenseMetrics().register(name))
+            );
+        }
+        Assertions.assertFalse(server.isRegistered(validate));
+    }
+
+    @Test
+    @DisplayName("Periodic Text Dump")
+    void metrics04() throws InterruptedException {
+        BlockingQueue<String> dumps = new LinkedBlockingQueue<>();
+        try (LicenseMetrics metrics = new LicenseMetrics()) {
+            metrics.timed(LicenseMetrics.Operation.FINGERPRINT, () -> "FINGERPRINT").get();
+            metrics.count(LicenseCodes.VALID);
+            metrics.dumpEvery(Duration.ofMillis(10), dumps::add);
+
+            String dump = dumps.poll(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(dump);
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(dump.contains("FINGERPRINT TOTAL   count=1"), dump),
+                    () -> Assertions.assertTrue(dump.contains(" 0=1 "), dump),
+                    () -> Assertions.assertFalse(dump.contains("count=0"), dump)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Recording Does Not Allocate")
+    void metrics05() {
+        LicenseMetrics metrics = new LicenseMetrics();
+        metrics.record(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.NETWORK, 1);
+
+        Allocations.assertAtMost(1024, () -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                metrics.record(LicenseMetrics.Operation.VALIDATE, LicenseMetrics.Phase.NETWORK, i);
+                metrics.count(LicenseCodes.EXPIRED);
+            }
+            return 0;
+        });
+
+        Assertions.assertEquals(1_000_000, metrics.codeCount(LicenseCodes.EXPIRED));
+    }
+}
@@ -0,0 +1,166 @@
+package com.example;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Latency and allocation budgets for the {@link ExampleTest} scenarios, run
+ * many times against a local {@link LicenseServerStandIn}. Excluded from the
+ * default build, run with:
+ *
+ * <pre>
+ * mvn test -Pperformance
+ * </pre>
+ *
+ * Each scenario is warmed up, then measured through
+ * {@link InstrumentedLicenseClient}s: TOTAL is the whole call, NETWORK the
+ * stand-in client including its license storage, and LOCAL the rest, e.g. key
+ * format checks. Allocation is measured around the measured call only, on the
+ * calling thread. A scenario over budget fails with its per-phase breakdown; budgets can be
+ * scaled for slower machines with {@code -Dperformance.budget.scale=2}.
+ */
+@Tag("performance")
+@Execution(ExecutionMode.SAME_THREAD)
+@ExtendWith(LicenseIsolation.class)
+class LicensePerformanceTest {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+    private static final double SCALE = Double.parseDouble(System.getProperty("performance.budget.scale", "1"));
+
+    private record Budget(Duration p50, Duration p99, long bytesPerOperation) {
+
+        Budget scaled() {
+            return new Budget(
+                    Duration.ofNanos((long) (p50.toNanos() * SCALE)),
+                    Duration.ofNanos((long) (p99.toNanos() * SCALE)),
+                    (long) (bytesPerOperation * SCALE));
+        }
+    }
+
+    /**
+     * A few times what a loopback round trip to the stand-in takes.
+     */
+    private static final Budget NETWORK_CALL = new Budget(Duration.ofMillis(10), Duration.ofMillis(50), 64 * 1024);
+    /**
+     * Reading and decoding the saved license, no round trip.
+     */
+    private static final Budget LOCAL_CALL = new Budget(Duration.ofNanos(100_000), Duration.ofMillis(1), 4 * 1024);
+
+    @Test
+    @DisplayName("Node-Locked Validation Within Budget")
+    void performance01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        StandInLicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        measure("node-locked", client, LicenseMetrics.Operation.VALIDATE, NETWORK_CALL,
+                c -> Assertions.assertTrue(c.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid()));
+    }
+
+    @Test
+    @DisplayName("Floating Validation Within Budget")
+    void performance02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        StandInLicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        measure("floating", client, LicenseMetrics.Operation.VALIDATE, NETWORK_CALL,
+                c -> Assertions.assertTrue(c.validate(LicenseFixtures.KEY_VALID_FLOATING).valid()));
+    }
+
+    @Test
+    @DisplayName("Feature Validation Within Budget")
+    void performance03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        StandInLicenseClient client = new StandInLicenseClient(server, settings.feature("my-product-version", "1.1").build());
+
+        measure("feature", client, LicenseMetrics.Operation.VALIDATE, NETWORK_CALL,
+                c -> Assertions.assertTrue(c.validate(LicenseFixtures.KEY_FEATURES).valid()));
+    }
+
+    @Test
+    @DisplayName("Fingerprint Mismatch Detected Within Budget")
+    void performance04(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        new StandInLicenseClient(server, settings.customFingerprint("A-FINGERPRINT").build()).validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        StandInLicenseClient moved = new StandInLicenseClient(server, settings.customFingerprint("B-FINGERPRINT").build());
+
+        measure("fingerprint", moved, LicenseMetrics.Operation.VALIDATE, LOCAL_CALL,
+                c -> Assertions.assertEquals(LicenseCodes.FINGERPRINT_MISMATCH, c.validate().code()));
+    }
+
+    @Test
+    @DisplayName("Invalidation Within Budget")
+    void performance05(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        StandInLicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        // each invalidation needs a validation first, which is neither timed nor counted
+        measure("invalidate", client, LicenseMetrics.Operation.INVALIDATE, NETWORK_CALL,
+                c -> c.validate(LicenseFixtures.KEY_VALID_NODELOCKED),
+                c -> Assertions.assertFalse(c.invalidate().valid()));
+    }
+
+    private static void measure(String scenario, LicenseClient client, LicenseMetrics.Operation operation, Budget budget, Consumer<LicenseClient> run) {
+        measure(scenario, client, operation, budget, c -> {
+        }, run);
+    }
+
+    /**
+     * @param prepare run on the uninstrumented client before each measured
+     * call, e.g. to reach the state the call starts from
+     */
+    private static void measure(String scenario, LicenseClient client, LicenseMetrics.Operation operation, Budget budget,
+            Consumer<LicenseClient> prepare, Consumer<LicenseClient> run) {
+        LicenseClient warm = instrument(client, new LicenseMetrics());
+        for (int i = 0; i < WARMUP; i++) {
+            prepare.accept(client);
+            run.accept(warm);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LicenseMetrics metrics = new LicenseMetrics();
+        LicenseClient measured = instrument(client, metrics);
+        long allocated = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            prepare.accept(client);
+            long before = threads.getCurrentThreadAllocatedBytes();
+            run.accept(measured);
+            allocated += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        long bytesPerOperation = allocated / ITERATIONS;
+
+        Budget scaled = budget.scaled();
+        LatencyHistogram total = metrics.histogram(operation, LicenseMetrics.Phase.TOTAL);
+        String report = report(scenario, metrics, operation, bytesPerOperation, scaled);
+        Assertions.assertAll(
+                report,
+                () -> Assertions.assertEquals(ITERATIONS, total.getCount()),
+                () -> Assertions.assertTrue(total.getP50Nanos() <= scaled.p50().toNanos(), "p50 over budget"),
+                () -> Assertions.assertTrue(total.getP99Nanos() <= scaled.p99().toNanos(), "p99 over budget"),
+                () -> Assertions.assertTrue(bytesPerOperation <= scaled.bytesPerOperation(), "allocation over budget")
+        );
+    }
+
+    private static LicenseClient instrument(LicenseClient client, LicenseMetrics metrics) {
+        LicenseClient network = new InstrumentedLicenseClient(client, metrics, LicenseMetrics.Phase.NETWORK);
+        return new InstrumentedLicenseClient(new PrevalidatingLicenseClient(network), metrics);
+    }
+
+    private static String report(String scenario, LicenseMetrics metrics, LicenseMetrics.Operation operation, long bytesPerOperation, Budget budget) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s: %d x %s, budget p50 %s, p99 %s, %d B/op%n",
+                scenario, ITERATIONS, operation, budget.p50(), budget.p99(), budget.bytesPerOperation()));
+        for (LicenseMetrics.Phase phase : LicenseMetrics.Phase.values()) {
+            LatencyHistogram histogram = metrics.histogram(operation, phase);
+            if (histogram.getCount() > 0) {
+                sb.append(String.format("  %-8s count=%-6d p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms%n",
+                        phase, histogram.getCount(), histogram.getP50Nanos() / 1e6, histogram.getP99Nanos() / 1e6, histogram.getMaxNanos() / 1e6));
+            }
+        }
+        sb.append(String.format("  allocated %d B/op on the calling thread", bytesPerOperation));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example;
+
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseRegistryTest {
+
+    @Test
+    @DisplayName("Independent Product Contexts Test")
+    void registry01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseRegistry registry = new LicenseRegistry(productSettings -> new StandInLicenseClient(server, productSettings));
+        LicenseContext product1 = registry.register(settings.build());
+        LicenseContext product2 = registry.register(settings.product(LicenseFixtures.PRODUCT_HASH2).build());
+
+        product1.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        product2.validate(LicenseFixtures.KEY_VALID_PRODUCT_DISABLED);
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertSame(product1, registry.get(LicenseFixtures.PRODUCT_HASH1)),
+                () -> Assertions.assertTrue(product1.status().isValid()),
+                () -> Assertions.assertFalse(product2.status().isValid()),
+                () -> Assertions.assertEquals(LicenseCodes.DISABLED, product2.status().code())
+        );
+    }
+
+    @Test
+    @DisplayName("Conflicting Registration Test")
+    void registry02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseRegistry registry = new LicenseRegistry(productSettings -> new StandInLicenseClient(server, productSettings));
+        LicenseContext context = registry.register(settings.build(), FeatureSchema.of("my-product-edition"));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertSame(context, registry.register(settings.build(), FeatureSchema.of("my-product-edition"))),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> registry.register(settings.build())),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> registry.register(settings.build(), FeatureSchema.of("my-product-version"))),
+                () -> Assertions.assertThrows(IllegalStateException.class, () -> registry.register(settings.customFingerprint("OTHER").build()))
+        );
+    }
+
+    @Test
+    @DisplayName("Parallel Validation of Products Test")
+    void registry03(LicenseSettings.Builder settings) {
+        // each validation waits for the other one to start, which never happens if they are serialized
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        LicenseRegistry registry = new LicenseRegistry(productSettings -> new LicenseClient() {
+            @Override
+            public LicenseSnapshot validate(String licenseKey) {
+                try {
+                    bothRunning.await(5, TimeUnit.SECONDS);
+                    return new LicenseSnapshot(true, LicenseCodes.VALID, Map.of(), LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis());
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException ex) {
+                    return LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+                }
+            }
+
+            @Override
+            public LicenseSnapshot validate() {
+                return status();
+            }
+
+            @Override
+            public LicenseSnapshot invalidate() {
+                return status();
+            }
+
+            @Override
+            public LicenseSnapshot status() {
+                return LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+            }
+        });
+        LicenseContext product1 = registry.register(settings.build());
+        LicenseContext product2 = registry.register(settings.product(LicenseFixtures.PRODUCT_HASH2).build());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<LicenseSnapshot> first = CompletableFuture.supplyAsync(() -> product1.validate(LicenseFixtures.KEY_VALID_NODELOCKED), executor);
+            CompletableFuture<LicenseSnapshot> second = CompletableFuture.supplyAsync(() -> product2.validate(LicenseFixtures.KEY_VALID_PRODUCT_DISABLED), executor);
+
+            Assertions.assertTrue(first.join().valid());
+            Assertions.assertTrue(second.join().valid());
+        }
+    }
+}
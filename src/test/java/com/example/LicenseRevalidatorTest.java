@@ -0,0 +1,163 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class LicenseRevalidatorTest {
+
+    private static void awaitRequests(LicenseServerStandIn server, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (server.requestCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(server.requestCount() >= count, "requests " + server.requestCount());
+    }
+
+    @Test
+    @DisplayName("Periodic Background Revalidation Test")
+    void revalidate01(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        long validated = status.snapshot().checkedAt();
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, Duration.ofMillis(50), 0.5)) {
+            revalidator.start();
+
+            awaitRequests(server, 4);
+        }
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(status.isValid()),
+                () -> Assertions.assertTrue(status.snapshot().checkedAt() >= validated)
+        );
+    }
+
+    @Test
+    @DisplayName("Last Status Served While Revalidating")
+    void revalidate02(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        LicenseSnapshot validated = status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        server.latency(Duration.ofMillis(500));
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, Duration.ofHours(1), 0)) {
+            Assertions.assertTrue(revalidator.refreshNow());
+            Assertions.assertFalse(revalidator.refreshNow());
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(revalidator.isRefreshing()),
+                    () -> Assertions.assertSame(validated, status.snapshot())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Last Status Kept When Server Fails")
+    void revalidate03(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        LicenseSnapshot validated = status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        server.errorRate(1);
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, Duration.ofHours(1), 0)) {
+            revalidator.refreshNow();
+            awaitRequests(server, 2);
+            while (revalidator.isRefreshing()) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertNotNull(revalidator.lastFailure()),
+                    () -> Assertions.assertSame(validated, status.snapshot())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Jittered Revalidation Interval Test")
+    void revalidate04(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        long interval = Duration.ofMinutes(10).toNanos();
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, Duration.ofMinutes(10), 0.2)) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < 1000; i++) {
+                long delay = revalidator.nextDelay();
+                min = Math.min(min, delay);
+                max = Math.max(max, delay);
+            }
+
+            Assertions.assertTrue(min >= interval * 0.8 && min < interval * 0.9, "min " + min);
+            Assertions.assertTrue(max <= interval * 1.2 && max > interval * 1.1, "max " + max);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseRevalidator(status, Duration.ZERO, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseRevalidator(status, Duration.ofMinutes(1), 2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseRevalidator(status, Duration.ofMinutes(1), 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LicenseRevalidator(status, Duration.ofMinutes(1), Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Starting Twice Is Rejected")
+    void revalidate05(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, Duration.ofHours(1), 0)) {
+            revalidator.start();
+
+            Assertions.assertThrows(IllegalStateException.class, revalidator::start);
+        }
+    }
+
+    @Test
+    @DisplayName("Jittered Schedule Stepped Until the License Expires")
+    void revalidate06(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        server.time(time).key("EXPIR-67890-ABCDE-12345", new LicenseServerStandIn.KeyFixture(
+                LicenseFixtures.PRODUCT_HASH1, LicenseServerStandIn.Type.NODE_LOCKED, 1,
+                time.currentTimeMillis() + Duration.ofDays(30).toMillis(), true, Map.of()));
+        CachedLicenseStatus status = new CachedLicenseStatus(new StandInLicenseClient(server, settings.build()));
+        status.validate("EXPIR-67890-ABCDE-12345");
+        ManualScheduler scheduler = new ManualScheduler(time);
+        Duration day = Duration.ofDays(1);
+
+        try (LicenseRevalidator revalidator = new LicenseRevalidator(status, day, 0.2, scheduler)) {
+            revalidator.start();
+            Duration first = scheduler.nextDelay();
+            scheduler.advance(first);
+            Duration second = scheduler.nextDelay();
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(first.compareTo(day) < 0, "first " + first),
+                    () -> Assertions.assertEquals(2, server.requestCount()),
+                    () -> Assertions.assertTrue(second.compareTo(day.multipliedBy(8).dividedBy(10)) >= 0
+                            && second.compareTo(day.multipliedBy(12).dividedBy(10)) <= 0, "second " + second)
+            );
+
+            scheduler.advance(Duration.ofDays(29).minus(first));
+
+            // 1 validation, then 1 revalidation within the first day and one every 0.8 to 1.2 days
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(status.isValid()),
+                    () -> Assertions.assertTrue(server.requestCount() >= 1 + 24 && server.requestCount() <= 1 + 37, "requests " + server.requestCount())
+            );
+
+            scheduler.advance(Duration.ofDays(2));
+
+            Assertions.assertEquals(LicenseCodes.EXPIRED, status.code());
+        }
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(scheduler.isShutdown()),
+                () -> Assertions.assertNull(scheduler.nextDelay())
+        );
+    }
+}
@@ -0,0 +1,452 @@
+package com.example;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process HTTP stand-in for the license server. It serves the fixtures of
+ * ExampleTest (see {@link LicenseFixtures}) on the loopback interface, and
+ * lets tests and benchmarks inject latency, jitter and server errors. Expiry
+ * and dead usages are checked against its {@link TimeSource}, which tests can
+ * replace with a {@link ManualTimeSource} to move time forward.
+ *
+ * <p>
+ * Requests and responses are form encoded. {@code POST /validate} takes
+ * {@code product}, {@code key}, {@code fingerprint} and {@code feature.*}
+ * parameters; {@code POST /invalidate} takes {@code product}, {@code key} and
+ * {@code fingerprint}. Responses carry {@code code}, {@code valid},
+ * {@code expires} and {@code feature.*}; valid ones also carry
+ * {@code license}, Base64 encoded {@link LicenseData} signed with the key of
+ * {@link #publicKey()}.</p>
+ */
+final class LicenseServerStandIn implements AutoCloseable {
+
+    /**
+     * License type, node-locked licenses are bound to a device fingerprint
+     * while floating licenses are released when invalidated.
+     */
+    enum Type {
+        NODE_LOCKED, FLOATING
+    }
+
+    /**
+     * A license key defined on the stand-in server.
+     */
+    static final class KeyFixture {
+
+        final String productHash;
+        final Type type;
+        final int maxUsage;
+        final long expiresAt;
+        final boolean enabled;
+        final Map<String, String> features;
+
+        /**
+         * Active usages, fingerprint to last seen time in epoch milliseconds.
+         * Floating usages not seen for the dead usage timeout are reclaimed.
+         */
+        final Map<String, Long> usages = new LinkedHashMap<>();
+
+        /**
+         * Highest number of active usages at the same time.
+         */
+        int peakUsages;
+
+        KeyFixture(String productHash, Type type, int maxUsage, long expiresAt, boolean enabled, Map<String, String> features) {
+            this.productHash = productHash;
+            this.type = type;
+            this.maxUsage = maxUsage;
+            this.expiresAt = expiresAt;
+            this.enabled = enabled;
+            this.features = Map.copyOf(features);
+        }
+    }
+
+    private static final long YEAR_MILLIS = Duration.ofDays(365).toMillis();
+
+    /**
+     * Time after which the license server releases the seat of a floating
+     * license whose client stopped validating, e.g. a JVM that crashed.
+     */
+    static final Duration DEAD_USAGE_TIMEOUT = Duration.ofMinutes(30);
+
+    static {
+        // without TCP_NODELAY, delayed ACKs add ~40ms to every loopback round trip
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Map<String, Boolean> products = new ConcurrentHashMap<>();
+    private final Map<String, KeyFixture> keys = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicReference<Duration> stall = new AtomicReference<>(Duration.ZERO);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+    private final KeyPair signingKey;
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Duration jitter = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile TimeSource time = TimeSource.SYSTEM;
+
+    private LicenseServerStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        try {
+            signingKey = KeyPairGenerator.getInstance(LicenseData.ALGORITHM).generateKeyPair();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+        server.setExecutor(executor);
+        server.createContext("/validate", exchange -> handle(exchange, true));
+        server.createContext("/invalidate", exchange -> handle(exchange, false));
+    }
+
+    /**
+     * Starts an empty stand-in server on a free loopback port.
+     *
+     * @return started server
+     * @throws IOException if the server cannot be started
+     */
+    static LicenseServerStandIn start() throws IOException {
+        LicenseServerStandIn standIn = new LicenseServerStandIn();
+        standIn.server.start();
+        return standIn;
+    }
+
+    /**
+     * Starts a stand-in server with the products and license keys of
+     * ExampleTest.
+     *
+     * @return started server
+     * @throws IOException if the server cannot be started
+     */
+    static LicenseServerStandIn withExampleFixtures() throws IOException {
+        long now = System.currentTimeMillis();
+        LicenseServerStandIn standIn = start();
+        standIn.product(LicenseFixtures.PRODUCT_HASH1, true);
+        standIn.product(LicenseFixtures.PRODUCT_HASH2, false);
+        standIn.key(LicenseFixtures.KEY_VALID_NODELOCKED, new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.NODE_LOCKED, 1, now + YEAR_MILLIS, true, Map.of()));
+        standIn.key(LicenseFixtures.KEY_VALID_FLOATING, new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.FLOATING, LicenseFixtures.FLOATING_SEATS, now + YEAR_MILLIS, true, Map.of()));
+        standIn.key(LicenseFixtures.KEY_EXPIRED, new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.NODE_LOCKED, 1, now - YEAR_MILLIS, true, Map.of()));
+        standIn.key(LicenseFixtures.KEY_FEATURES, new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.NODE_LOCKED, 1, LicenseSnapshot.NO_EXPIRY, true, LicenseFixtures.FEATURES));
+        standIn.key(LicenseFixtures.KEY_DISABLED, new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.NODE_LOCKED, 1, now + YEAR_MILLIS, false, Map.of()));
+        standIn.key(LicenseFixtures.KEY_VALID_PRODUCT_DISABLED, new KeyFixture(LicenseFixtures.PRODUCT_HASH2, Type.NODE_LOCKED, 1, now + YEAR_MILLIS, true, Map.of()));
+
+        KeyFixture maxUsageReached = new KeyFixture(LicenseFixtures.PRODUCT_HASH1, Type.NODE_LOCKED, 1, now + YEAR_MILLIS, true, Map.of());
+        maxUsageReached.usages.put("ANOTHER-DEVICE-FINGERPRINT", now);
+        standIn.key(LicenseFixtures.KEY_MAX_USAGE_REACHED, maxUsageReached);
+        return standIn;
+    }
+
+    /**
+     * Defines a product.
+     *
+     * @param productHash product hash value
+     * @param enabled false to make all licenses of the product invalid
+     */
+    void product(String productHash, boolean enabled) {
+        products.put(productHash, enabled);
+    }
+
+    /**
+     * Defines a license key.
+     *
+     * @param licenseKey license key
+     * @param fixture license definition
+     */
+    void key(String licenseKey, KeyFixture fixture) {
+        keys.put(licenseKey, fixture);
+    }
+
+    /**
+     * Sets a fixed delay added to every request.
+     *
+     * @param latency delay
+     * @return this server
+     */
+    LicenseServerStandIn latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Delays the next request only, on top of {@link #latency(Duration)},
+     * e.g. a straggler to hedge.
+     *
+     * @param stall delay of the next request
+     * @return this server
+     */
+    LicenseServerStandIn stall(Duration stall) {
+        this.stall.set(stall);
+        return this;
+    }
+
+    /**
+     * Sets the upper bound of a uniformly distributed random delay added to
+     * every request, on top of {@link #latency(Duration)}.
+     *
+     * @param jitter maximum random delay
+     * @return this server
+     */
+    LicenseServerStandIn jitter(Duration jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Sets the fraction of requests answered with HTTP 503.
+     *
+     * @param errorRate value between 0 and 1
+     * @return this server
+     */
+    LicenseServerStandIn errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Sets the clock used for license expiry, usage times and dead usage
+     * reclaim. Injected latency still takes real time.
+     *
+     * @param time time source
+     * @return this server
+     */
+    LicenseServerStandIn time(TimeSource time) {
+        this.time = time;
+        return this;
+    }
+
+    /**
+     * @return number of requests received so far
+     */
+    long requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * @param licenseKey license key
+     * @return highest number of active usages of the license at the same
+     * time, since the server started
+     */
+    int peakUsageCount(String licenseKey) {
+        KeyFixture fixture = keys.get(licenseKey);
+        synchronized (fixture) {
+            return fixture.peakUsages;
+        }
+    }
+
+    /**
+     * @param licenseKey license key
+     * @return number of active usages of the license
+     */
+    int usageCount(String licenseKey) {
+        KeyFixture fixture = keys.get(licenseKey);
+        synchronized (fixture) {
+            reclaim(fixture, time.currentTimeMillis());
+            return fixture.usages.size();
+        }
+    }
+
+    /**
+     * @return key to verify the license data signed by this server
+     */
+    PublicKey publicKey() {
+        return signingKey.getPublic();
+    }
+
+    /**
+     * @return base URI of the server, without a trailing slash
+     */
+    URI uri() {
+        InetSocketAddress address = server.getAddress();
+        return URI.create("http://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, boolean validate) throws IOException {
+        try (exchange) {
+            requestCount.incrementAndGet();
+            if (!delay()) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            Map<String, String> request = decode(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            Map<String, String> response = validate ? validate(request) : invalidate(request);
+            byte[] body = encode(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/x-www-form-urlencoded");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Applies the configured latency and error rate.
+     *
+     * @return false if the request should fail
+     */
+    private boolean delay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nanos = latency.toNanos() + stall.getAndSet(Duration.ZERO).toNanos();
+        long jitterNanos = jitter.toNanos();
+        if (jitterNanos > 0) {
+            nanos += random.nextLong(jitterNanos + 1);
+        }
+        if (nanos > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(nanos));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return random.nextDouble() >= errorRate;
+    }
+
+    private Map<String, String> validate(Map<String, String> request) {
+        String licenseKey = request.getOrDefault("key", "");
+        String fingerprint = request.getOrDefault("fingerprint", "");
+        if (!LicenseKeys.isWellFormed(licenseKey)) {
+            return result(LicenseCodes.INVALID_KEY_FORMAT, null);
+        }
+
+        String productHash = request.getOrDefault("product", "");
+        Boolean productEnabled = products.get(productHash);
+        KeyFixture fixture = keys.get(licenseKey);
+        if (productEnabled == null || fixture == null || !fixture.productHash.equals(productHash)) {
+            return result(LicenseCodes.NOT_FOUND, null);
+        }
+        if (!productEnabled || !fixture.enabled) {
+            return result(LicenseCodes.DISABLED, null);
+        }
+        long now = time.currentTimeMillis();
+        if (fixture.expiresAt < now) {
+            return result(LicenseCodes.EXPIRED, null);
+        }
+        for (Map.Entry<String, String> entry : request.entrySet()) {
+            if (entry.getKey().startsWith("feature.")) {
+                String licensed = fixture.features.get(entry.getKey().substring("feature.".length()));
+                if (licensed != null && !matches(licensed, entry.getValue())) {
+                    return result(LicenseCodes.FEATURE_MISMATCH, null);
+                }
+            }
+        }
+        synchronized (fixture) {
+            reclaim(fixture, now);
+            if (!fixture.usages.containsKey(fingerprint) && fixture.usages.size() >= fixture.maxUsage) {
+                return result(LicenseCodes.MAX_USAGE_REACHED, null);
+            }
+            fixture.usages.put(fingerprint, now);
+            fixture.peakUsages = Math.max(fixture.peakUsages, fixture.usages.size());
+        }
+        Map<String, String> result = result(LicenseCodes.VALID, fixture);
+        LicenseSnapshot snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, fixture.features, fixture.expiresAt, now);
+        try {
+            LicenseData data = LicenseData.sign(licenseKey, productHash, fingerprint, snapshot, now, signingKey.getPrivate());
+            result.put("license", Base64.getEncoder().encodeToString(data.encode()));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return result;
+    }
+
+    private Map<String, String> invalidate(Map<String, String> request) {
+        KeyFixture fixture = keys.get(request.getOrDefault("key", ""));
+        if (fixture == null) {
+            return result(LicenseCodes.NOT_FOUND, null);
+        }
+        synchronized (fixture) {
+            fixture.usages.remove(request.getOrDefault("fingerprint", ""));
+        }
+        return result(LicenseCodes.NOT_VALIDATED, null);
+    }
+
+    /**
+     * Releases floating usages not seen for {@link #DEAD_USAGE_TIMEOUT}.
+     */
+    private static void reclaim(KeyFixture fixture, long now) {
+        if (fixture.type == Type.FLOATING) {
+            long timeout = DEAD_USAGE_TIMEOUT.toMillis();
+            fixture.usages.values().removeIf(lastSeen -> now - lastSeen >= timeout);
+        }
+    }
+
+    private static Map<String, String> result(int code, KeyFixture fixture) {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("code", Integer.toString(code));
+        result.put("valid", Boolean.toString(fixture != null));
+        if (fixture != null) {
+            result.put("expires", Long.toString(fixture.expiresAt));
+            fixture.features.forEach((key, value) -> result.put("feature." + key, value));
+        }
+        return result;
+    }
+
+    /**
+     * A requested feature matches if it is equal to the licensed value, or if
+     * both are numbers and the requested value does not exceed the licensed
+     * one (e.g. version 1.1 for a license with version 1.99).
+     */
+    private static boolean matches(String licensed, String requested) {
+        if (licensed.equals(requested)) {
+            return true;
+        }
+        try {
+            return Double.parseDouble(requested) <= Double.parseDouble(licensed);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    static String encode(Map<String, String> values) {
+        StringBuilder sb = new StringBuilder();
+        values.forEach((key, value) -> {
+            if (!sb.isEmpty()) {
+                sb.append('&');
+            }
+            sb.append(URLEncoder.encode(key, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        });
+        return sb.toString();
+    }
+
+    static Map<String, String> decode(String form) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String pair : form.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                values.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return values;
+    }
+}
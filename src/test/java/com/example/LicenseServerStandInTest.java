@@ -0,0 +1,262 @@
+package com.example;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * ExampleTest scenarios against the in-process license server stand-in, so
+ * they run offline and in parallel.
+ */
+@ExtendWith(LicenseIsolation.class)
+class LicenseServerStandInTest {
+
+    @Test
+    @DisplayName("Invalid Characters in License Key Test")
+    void key01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseSnapshot status = new StandInLicenseClient(server, settings.build()).validate("ABCDE 12345");
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(status.valid()),
+                () -> Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, status.code())
+        );
+    }
+
+    @Test
+    @DisplayName("Very Short License Key Test")
+    void key02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, client.validate("ABCDE").code());
+    }
+
+    @Test
+    @DisplayName("Very Long License Key Test")
+    void key03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.INVALID_KEY_FORMAT, client.validate("1234567890-".repeat(30)).code());
+    }
+
+    @Test
+    @DisplayName("Any Valid Feature Given Test")
+    void feature02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings
+                .feature("AnyFeatureKey", "anything1")
+                .build());
+
+        LicenseSnapshot status = client.validate(LicenseFixtures.KEY_FEATURES);
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(status.valid()),
+                () -> Assertions.assertEquals("anything1", status.feature("AnyFeatureKey"))
+        );
+    }
+
+    @Test
+    @DisplayName("Any Invalid Feature Given Test")
+    void feature03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseSnapshot status = new StandInLicenseClient(server, settings
+                .feature("AnyFeatureKey", "anything2")
+                .build())
+                .validate(LicenseFixtures.KEY_FEATURES);
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(status.valid()),
+                () -> Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, status.code())
+        );
+    }
+
+    @Test
+    @DisplayName("Non-Existing Features in the License Test")
+    void feature04(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings
+                .feature("abcde", "something")
+                .build());
+
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_FEATURES).valid());
+    }
+
+    @Test
+    @DisplayName("Valid and Invalid Product Version Test")
+    void version01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient invalid = new StandInLicenseClient(server, settings.feature("my-product-version", "2.0").build());
+        LicenseClient valid = new StandInLicenseClient(server, settings.feature("my-product-version", "1.1").build());
+
+        Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, invalid.validate(LicenseFixtures.KEY_FEATURES).code());
+        Assertions.assertEquals(LicenseCodes.VALID, valid.validate(LicenseFixtures.KEY_FEATURES).code());
+    }
+
+    @Test
+    @DisplayName("Valid and Invalid CPU Core Count Test")
+    void core01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient invalid = new StandInLicenseClient(server, settings.feature("my-product-core-1", 2).build());
+        LicenseClient valid = new StandInLicenseClient(server, settings
+                .feature("my-product-core-1", 1)
+                .feature("my-product-core-32", 2)
+                .build());
+
+        Assertions.assertEquals(LicenseCodes.FEATURE_MISMATCH, invalid.validate(LicenseFixtures.KEY_FEATURES).code());
+        Assertions.assertEquals(LicenseCodes.VALID, valid.validate(LicenseFixtures.KEY_FEATURES).code());
+    }
+
+    @Test
+    @DisplayName("Max Allowed Usage for Node-Locked Reached Test")
+    void maxUsage01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.MAX_USAGE_REACHED, client.validate(LicenseFixtures.KEY_MAX_USAGE_REACHED).code());
+    }
+
+    @Test
+    @DisplayName("Invalid License Key Test")
+    void maxUsage02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.NOT_FOUND, client.validate(LicenseFixtures.KEY_NOT_FOUND).code());
+    }
+
+    @Test
+    @DisplayName("License Disabled on the License Server")
+    void disabled01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.DISABLED, client.validate(LicenseFixtures.KEY_DISABLED).code());
+    }
+
+    @Test
+    @DisplayName("Product Disabled on the License Server")
+    void disabled02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.product(LicenseFixtures.PRODUCT_HASH2).build());
+
+        Assertions.assertEquals(LicenseCodes.DISABLED, client.validate(LicenseFixtures.KEY_VALID_PRODUCT_DISABLED).code());
+    }
+
+    @Test
+    @DisplayName("Expired License")
+    void expired01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertEquals(LicenseCodes.EXPIRED, client.validate(LicenseFixtures.KEY_EXPIRED).code());
+    }
+
+    @Test
+    @DisplayName("License Expires While in Use")
+    void expired02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        server.time(time).key("EXPIR-67890-ABCDE-12345", new LicenseServerStandIn.KeyFixture(
+                LicenseFixtures.PRODUCT_HASH1, LicenseServerStandIn.Type.NODE_LOCKED, 1,
+                time.currentTimeMillis() + Duration.ofDays(30).toMillis(), true, Map.of()));
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertTrue(client.validate("EXPIR-67890-ABCDE-12345").valid());
+        time.advance(Duration.ofDays(30));
+        Assertions.assertTrue(client.validate().valid(), "valid until the expiry time");
+        time.advance(Duration.ofMillis(1));
+
+        Assertions.assertEquals(LicenseCodes.EXPIRED, client.validate().code());
+    }
+
+    @Test
+    @DisplayName("Invalidate License")
+    void invalidate01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+        Assertions.assertEquals(1, server.usageCount(LicenseFixtures.KEY_VALID_NODELOCKED));
+
+        client.invalidate();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertFalse(client.status().valid()),
+                () -> Assertions.assertEquals(0, server.usageCount(LicenseFixtures.KEY_VALID_NODELOCKED)),
+                () -> Assertions.assertEquals(LicenseCodes.NOT_VALIDATED, client.validate().code())
+        );
+    }
+
+    @Test
+    @DisplayName("Validate a Floating License Test")
+    void floating01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_FLOATING).valid());
+        Assertions.assertEquals(1, server.usageCount(LicenseFixtures.KEY_VALID_FLOATING));
+
+        client.invalidate();
+
+        Assertions.assertEquals(0, server.usageCount(LicenseFixtures.KEY_VALID_FLOATING));
+    }
+
+    @Test
+    @DisplayName("Dead Floating Usage Reclaimed")
+    void floating02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        server.time(time);
+        List<LicenseClient> clients = new ArrayList<>();
+        for (int i = 0; i < LicenseFixtures.FLOATING_SEATS; i++) {
+            LicenseClient client = new StandInLicenseClient(server, settings.customFingerprint("SEAT-" + i).storage(new MemoryLicenseStorage()).build());
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_FLOATING).valid());
+            clients.add(client);
+        }
+        LicenseClient waiting = new StandInLicenseClient(server, settings.customFingerprint("WAITING").storage(new MemoryLicenseStorage()).build());
+        Assertions.assertEquals(LicenseCodes.MAX_USAGE_REACHED, waiting.validate(LicenseFixtures.KEY_VALID_FLOATING).code());
+
+        // the first client keeps validating, the others stopped without invalidating
+        time.advance(LicenseServerStandIn.DEAD_USAGE_TIMEOUT.minusMinutes(1));
+        Assertions.assertTrue(clients.get(0).validate().valid());
+        Assertions.assertEquals(LicenseCodes.MAX_USAGE_REACHED, waiting.validate(LicenseFixtures.KEY_VALID_FLOATING).code());
+        time.advance(Duration.ofMinutes(1));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(1, server.usageCount(LicenseFixtures.KEY_VALID_FLOATING)),
+                () -> Assertions.assertTrue(waiting.validate(LicenseFixtures.KEY_VALID_FLOATING).valid()),
+                () -> Assertions.assertEquals(2, server.usageCount(LicenseFixtures.KEY_VALID_FLOATING))
+        );
+    }
+
+    @Test
+    @DisplayName("Validate with a Custom Fingerprint 2")
+    void customFingerprint02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient a = new StandInLicenseClient(server, settings.customFingerprint("A-FINGERPRINT").build());
+        LicenseClient b = new StandInLicenseClient(server, settings.customFingerprint("B-FINGERPRINT").build());
+
+        Assertions.assertTrue(a.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+
+        // same license file, different fingerprint
+        Assertions.assertEquals(LicenseCodes.FINGERPRINT_MISMATCH, b.validate().code());
+        Assertions.assertEquals(LicenseCodes.VALID, a.validate().code());
+    }
+
+    @Test
+    @DisplayName("Injected Latency Test")
+    void latency01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+        server.latency(Duration.ofMillis(50)).jitter(Duration.ofMillis(10));
+
+        long start = System.nanoTime();
+        client.validate(LicenseFixtures.KEY_EXPIRED);
+        long elapsed = System.nanoTime() - start;
+
+        Assertions.assertTrue(elapsed >= Duration.ofMillis(50).toNanos(), "elapsed " + elapsed + "ns");
+    }
+
+    @Test
+    @DisplayName("Injected Server Error Test")
+    void error01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseClient client = new StandInLicenseClient(server, settings.build());
+        server.errorRate(1);
+
+        Assertions.assertThrows(UncheckedIOException.class, () -> client.validate(LicenseFixtures.KEY_VALID_NODELOCKED));
+    }
+}
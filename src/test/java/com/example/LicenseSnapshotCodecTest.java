@@ -0,0 +1,140 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LicenseSnapshotCodecTest {
+
+    private final LicenseSnapshotCodec codec = new LicenseSnapshotCodec(FeatureSchema.of("my-product-version", "my-product-core-32", "username", "missing"));
+
+    private final LicenseSnapshot snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, features(), 1_900_000_000_000L, 1_800_000_000_000L);
+
+    private static Map<String, String> features() {
+        Map<String, String> features = new HashMap<>(LicenseFixtures.FEATURES);
+        features.put("région-ключ", "€ 𝄞 ok");
+        return features;
+    }
+
+    @Test
+    @DisplayName("Snapshot Survives Round Trip in Any Buffer")
+    void codec01() throws IOException {
+        for (ByteBuffer buffer : new ByteBuffer[]{
+            ByteBuffer.allocate(1024),
+            ByteBuffer.allocateDirect(1024),
+            ByteBuffer.allocateDirect(1024).order(ByteOrder.LITTLE_ENDIAN)}) {
+            buffer.position(7);
+            int length = codec.encode(snapshot, null, buffer);
+            Assertions.assertEquals(7 + length, buffer.position());
+
+            buffer.flip().position(7);
+            LicenseSnapshotCodec.View view = codec.view(buffer.asReadOnlyBuffer());
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(snapshot, view.toSnapshot()),
+                    () -> Assertions.assertEquals(length, view.length()),
+                    () -> Assertions.assertTrue(view.valid()),
+                    () -> Assertions.assertEquals(1_900_000_000_000L, view.expiresAt()),
+                    () -> Assertions.assertEquals(7, view.featureCount()),
+                    () -> Assertions.assertEquals("1.99", view.feature(0)),
+                    () -> Assertions.assertTrue(view.featureEquals(1, "32")),
+                    () -> Assertions.assertFalse(view.featureEquals(1, "3")),
+                    () -> Assertions.assertFalse(view.featureEquals(1, "320")),
+                    () -> Assertions.assertFalse(view.has(3)),
+                    () -> Assertions.assertNull(view.feature(3)),
+                    () -> Assertions.assertEquals("anything1", view.feature("AnyFeatureKey")),
+                    () -> Assertions.assertEquals("€ 𝄞 ok", view.feature("région-ключ")),
+                    () -> Assertions.assertNull(view.feature("no-such-feature")),
+                    () -> Assertions.assertEquals(snapshot, codec.decode(buffer.position(7)))
+            );
+            Assertions.assertFalse(buffer.hasRemaining());
+        }
+
+        ByteBuffer invalid = ByteBuffer.allocate(LicenseSnapshotCodec.HEADER_LENGTH);
+        LicenseSnapshot notFound = LicenseSnapshot.invalid(LicenseCodes.NOT_FOUND, 1000);
+        codec.encode(notFound, null, invalid);
+        Assertions.assertEquals(notFound, codec.decode(invalid.flip()));
+    }
+
+    @Test
+    @DisplayName("Fingerprint Digest Compared in Place")
+    void codec02() throws IOException {
+        byte[] digest = LicenseSnapshotCodec.digest("TEST-FINGERPRINT");
+        ByteBuffer bound = ByteBuffer.allocate(1024);
+        ByteBuffer unbound = ByteBuffer.allocate(1024);
+        codec.encode(snapshot, digest, bound);
+        codec.encode(snapshot, null, unbound);
+
+        LicenseSnapshotCodec.View view = codec.view(bound.flip());
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(LicenseSnapshotCodec.DIGEST_LENGTH, digest.length),
+                () -> Assertions.assertTrue(view.fingerprintMatches(LicenseSnapshotCodec.digest("TEST-FINGERPRINT"))),
+                () -> Assertions.assertFalse(view.fingerprintMatches(LicenseSnapshotCodec.digest("ANOTHER-DEVICE-FINGERPRINT"))),
+                () -> Assertions.assertFalse(codec.view(unbound.flip()).fingerprintMatches(new byte[LicenseSnapshotCodec.DIGEST_LENGTH])),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> codec.encode(snapshot, new byte[16], ByteBuffer.allocate(1024)))
+        );
+    }
+
+    @Test
+    @DisplayName("Malformed Snapshots Rejected")
+    void codec03() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        int length = codec.encode(snapshot, null, buffer);
+        byte[] encoded = new byte[length];
+        buffer.flip().get(encoded);
+
+        byte[] version = encoded.clone();
+        version[0] = 9;
+        byte[] overlong = encoded.clone();
+        overlong[7]++;
+        byte[] count = encoded.clone();
+        count[3]--;
+
+        ByteBuffer small = ByteBuffer.allocate(length - 1).position(3);
+        ByteBuffer header = ByteBuffer.allocate(20).position(3);
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertThrows(IOException.class, () -> codec.view(ByteBuffer.wrap(encoded, 0, LicenseSnapshotCodec.HEADER_LENGTH - 1))),
+                () -> Assertions.assertThrows(IOException.class, () -> codec.view(ByteBuffer.wrap(encoded, 0, length - 1))),
+                () -> Assertions.assertThrows(IOException.class, () -> codec.view(ByteBuffer.wrap(version))),
+                () -> Assertions.assertThrows(IOException.class, () -> codec.view(ByteBuffer.wrap(overlong))),
+                () -> Assertions.assertThrows(IOException.class, () -> codec.view(ByteBuffer.wrap(count))),
+                // encoded with another schema
+                () -> Assertions.assertThrows(IOException.class, () -> new LicenseSnapshotCodec(FeatureSchema.of("my-product-version")).view(ByteBuffer.wrap(encoded))),
+                () -> Assertions.assertThrows(BufferOverflowException.class, () -> codec.encode(snapshot, null, small)),
+                () -> Assertions.assertEquals(3, small.position()),
+                () -> Assertions.assertThrows(BufferOverflowException.class, () -> codec.encode(snapshot, null, header)),
+                () -> Assertions.assertEquals(3, header.position())
+        );
+    }
+
+    @Test
+    @DisplayName("View Reads Do Not Allocate")
+    void codec04() throws IOException {
+        byte[] digest = LicenseSnapshotCodec.digest("TEST-FINGERPRINT");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        codec.encode(snapshot, digest, buffer);
+        LicenseSnapshotCodec.View view = codec.view(buffer.flip());
+        String[] usernames = {"abcuser", "abcuser2"};
+        int reads = 1_000_000;
+
+        int matched = Allocations.assertAtMost(1024, () -> {
+            int count = 0;
+            for (int i = 0; i < reads; i++) {
+                if (view.valid() && view.expiresAt() > i && view.fingerprintMatches(digest) && view.featureEquals(2, usernames[i & 1])) {
+                    count++;
+                }
+            }
+            return count;
+        });
+
+        Assertions.assertEquals(reads / 2, matched);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LicenseStorageTest {
+
+    @Test
+    @DisplayName("In-Memory Storage Copies Data")
+    void storage01() throws IOException {
+        MemoryLicenseStorage storage = new MemoryLicenseStorage();
+        byte[] data = "first".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertNull(storage.read());
+
+        storage.write(data);
+        data[0] = 'X';
+        storage.read()[0] = 'Y';
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals("first", new String(storage.read(), StandardCharsets.UTF_8)),
+                () -> Assertions.assertTrue(storage.delete()),
+                () -> Assertions.assertNull(storage.read()),
+                () -> Assertions.assertFalse(storage.delete())
+        );
+    }
+
+    @Test
+    @DisplayName("Write-Behind Storage Writes Only the Latest Data")
+    void storage02() throws IOException, InterruptedException {
+        BlockingStorage target = new BlockingStorage();
+        try (WriteBehindLicenseStorage storage = new WriteBehindLicenseStorage(target)) {
+            storage.write("first".getBytes(StandardCharsets.UTF_8));
+            target.started.await();
+
+            storage.write("second".getBytes(StandardCharsets.UTF_8));
+            storage.write("third".getBytes(StandardCharsets.UTF_8));
+            Assertions.assertEquals("third", new String(storage.read(), StandardCharsets.UTF_8));
+
+            target.release.countDown();
+            storage.flush();
+
+            Assertions.assertEquals(List.of("first", "third"), target.written);
+
+            Assertions.assertTrue(storage.delete());
+            Assertions.assertNull(storage.read());
+            storage.flush();
+            Assertions.assertNull(target.read());
+        }
+    }
+
+    @Test
+    @DisplayName("Write-Behind Storage Reports Failed Writes on Flush")
+    void storage03(@TempDir Path directory) throws IOException {
+        // a directory cannot be replaced by a license file
+        WriteBehindLicenseStorage storage = new WriteBehindLicenseStorage(new LicenseFileStore(directory));
+        storage.write(new byte[16]);
+
+        Assertions.assertThrows(IOException.class, storage::close);
+    }
+
+    @Test
+    @DisplayName("Registry Storage Saves Binary Values")
+    void storage04() throws IOException, BackingStoreException {
+        String key = "license-storage-test-" + UUID.randomUUID();
+        RegistryLicenseStorage storage = new RegistryLicenseStorage(key, "license");
+        try {
+            byte[] data = new byte[256];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            storage.write(data);
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertArrayEquals(data, storage.read()),
+                    () -> Assertions.assertArrayEquals(data, new RegistryLicenseStorage(key, "license").read()),
+                    () -> Assertions.assertEquals("/" + key + "/license", storage.location()),
+                    () -> Assertions.assertThrows(IOException.class, () -> storage.write(new byte[Preferences.MAX_VALUE_LENGTH])),
+                    () -> Assertions.assertTrue(storage.delete()),
+                    () -> Assertions.assertNull(storage.read())
+            );
+        } finally {
+            Preferences.userRoot().node(key).removeNode();
+        }
+    }
+
+    @Test
+    @DisplayName("Settings Use the Configured Storage")
+    void storage05() {
+        MemoryLicenseStorage memory = new MemoryLicenseStorage();
+        LicenseSettings settings = LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .storage(memory)
+                .build();
+        LicenseSettings registry = LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .registry("MyExampleProduct1", "license")
+                .build();
+        LicenseSettings file = LicenseSettings.builder()
+                .product(LicenseFixtures.PRODUCT_HASH1)
+                .build();
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertSame(memory, settings.storage()),
+                () -> Assertions.assertEquals(memory.location(), settings.saveLocation()),
+                () -> Assertions.assertInstanceOf(RegistryLicenseStorage.class, registry.storage()),
+                () -> Assertions.assertEquals(registry.storage().location(), registry.saveLocation()),
+                () -> Assertions.assertEquals(file.storage().location(), file.saveLocation()),
+                () -> Assertions.assertInstanceOf(LicenseFileStore.class, file.storage()),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> new LibraryLicenseClient(settings)),
+                () -> Assertions.assertThrows(IllegalArgumentException.class, () -> LicenseSettings.builder().product("9AB9").build()),
+                () -> Assertions.assertThrows(NullPointerException.class, () -> LicenseSettings.builder().build())
+        );
+    }
+
+    @Test
+    @DisplayName("Write-Behind Storage Retries Failed Writes")
+    void storage06(@TempDir Path directory) throws IOException {
+        Path file = Files.createDirectory(directory.resolve("license.l4j"));
+        LicenseFileStore target = new LicenseFileStore(file);
+        WriteBehindLicenseStorage storage = new WriteBehindLicenseStorage(target);
+        storage.write("first".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThrows(IOException.class, storage::flush);
+        Assertions.assertEquals("first", new String(storage.read(), StandardCharsets.UTF_8));
+
+        Files.delete(file);
+        storage.close();
+
+        Assertions.assertEquals("first", new String(target.read(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Records writes; the first write waits until released.
+     */
+    private static final class BlockingStorage implements LicenseStorage {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> written = new CopyOnWriteArrayList<>();
+
+        private volatile byte[] data;
+
+        @Override
+        public byte[] read() {
+            return data;
+        }
+
+        @Override
+        public void write(byte[] data) throws IOException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            written.add(new String(data, StandardCharsets.UTF_8));
+            this.data = data;
+        }
+
+        @Override
+        public boolean delete() {
+            boolean existed = data != null;
+            data = null;
+            return existed;
+        }
+
+        @Override
+        public String location() {
+            return "blocking";
+        }
+    }
+}
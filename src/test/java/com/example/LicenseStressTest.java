@@ -0,0 +1,84 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Concurrency stress tests of the published license status, see
+ * {@link StatusStress}. Excluded from the default build, run with:
+ *
+ * <pre>
+ * mvn test -Pstress
+ * mvn test -Pstress -Dstress.seconds=30
+ * </pre>
+ */
+@Tag("stress")
+@Execution(ExecutionMode.SAME_THREAD)
+class LicenseStressTest {
+
+    private static final Duration RUN = Duration.ofSeconds(Long.getLong("stress.seconds", 2));
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    @DisplayName("Status Reads Never Torn Under Concurrent Revalidation and Invalidation")
+    void stress01() throws InterruptedException {
+        StatusStress.Result result = new StatusStress(Duration.ZERO).run(Math.max(4, 2 * CORES), 3, RUN);
+        System.out.print(StatusStress.report(List.of(result)));
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertTrue(result.reads() > 0),
+                () -> Assertions.assertTrue(result.writes() > 0),
+                () -> Assertions.assertEquals(0, result.torn(), () -> String.join("\n", result.examples())),
+                () -> Assertions.assertEquals(0, result.outOfOrder(), () -> String.join("\n", result.examples())),
+                () -> Assertions.assertEquals(0, result.mixed(), () -> String.join("\n", result.examples()))
+        );
+    }
+
+    @Test
+    @DisplayName("Readers Never Wait for Contended Writers")
+    void stress02() throws InterruptedException {
+        StatusStress.Result result = new StatusStress(Duration.ofNanos(20_000)).run(CORES, 6, RUN);
+        String hotSpots = StatusStress.hotSpots(result, 5);
+        System.out.print(StatusStress.report(List.of(result)));
+        System.out.print(hotSpots);
+
+        Assertions.assertAll(
+                hotSpots,
+                () -> Assertions.assertEquals(0, result.readerWaits()),
+                () -> Assertions.assertTrue(result.hotSpots().keySet().stream().noneMatch(spot -> spot.contains("<- reader"))),
+                () -> Assertions.assertTrue(result.hotSpots().keySet().stream().anyMatch(spot -> spot.contains("CachedLicenseStatus.")))
+        );
+    }
+
+    @Test
+    @DisplayName("Read Throughput Scaling From 1 to N Cores")
+    void stress03() throws InterruptedException {
+        List<Integer> counts = new ArrayList<>();
+        for (int readers = 1; readers < 2 * CORES || readers <= 4; readers *= 2) {
+            counts.add(readers);
+        }
+        StatusStress.Result[] results = new StatusStress(Duration.ZERO)
+                .sweep(RUN, 1, counts.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(StatusStress.Result[]::new);
+        System.out.printf("%d cores%n", CORES);
+        System.out.print(StatusStress.report(List.of(results)));
+
+        for (StatusStress.Result result : results) {
+            Assertions.assertAll(
+                    result.toString(),
+                    () -> Assertions.assertTrue(result.reads() > 0),
+                    () -> Assertions.assertEquals(0, result.torn()),
+                    () -> Assertions.assertEquals(0, result.outOfOrder()),
+                    () -> Assertions.assertEquals(0, result.mixed())
+            );
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ScheduledExecutorService} that runs tasks on the calling thread of
+ * {@link #advance(Duration)}, in the order they are due on a
+ * {@link ManualTimeSource}. The time source is moved to each task's due time
+ * before it runs, so tasks see the time they were scheduled for.
+ *
+ * <p>
+ * Supports {@link #execute(Runnable)} and
+ * {@link #schedule(Runnable, long, TimeUnit)}, which is what one-shot
+ * rescheduling chains such as {@link LicenseRevalidator} use.</p>
+ */
+final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final ManualTimeSource time;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private long sequence;
+    private boolean shutdown;
+
+    ManualScheduler(ManualTimeSource time) {
+        this.time = time;
+    }
+
+    /**
+     * Moves time forward, running the tasks that become due, including tasks
+     * scheduled by them.
+     *
+     * @param duration time to add
+     * @return number of tasks run
+     */
+    int advance(Duration duration) {
+        long end = time.nanoTime() + duration.toNanos();
+        int run = 0;
+        while (true) {
+            Task next;
+            lock.lock();
+            try {
+                next = tasks.peek();
+                if (next == null || next.due - end > 0) {
+                    break;
+                }
+                tasks.poll();
+            } finally {
+                lock.unlock();
+            }
+            long wait = next.due - time.nanoTime();
+            if (wait > 0) {
+                time.advance(Duration.ofNanos(wait));
+            }
+            next.run();
+            run++;
+        }
+        long rest = end - time.nanoTime();
+        if (rest > 0) {
+            time.advance(Duration.ofNanos(rest));
+        }
+        return run;
+    }
+
+    /**
+     * @return time until the next task is due, or null if none is scheduled
+     */
+    Duration nextDelay() {
+        lock.lock();
+        try {
+            Task next = tasks.peek();
+            return next == null ? null : Duration.ofNanos(next.due - time.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("scheduler shut down");
+            }
+            Task task = new Task(command, time.nanoTime() + Math.max(0, unit.toNanos(delay)), sequence++);
+            tasks.add(task);
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        lock.lock();
+        try {
+            shutdown = true;
+            List<Runnable> pending = tasks.stream().map(task -> task.command).toList();
+            tasks.clear();
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return isShutdown();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isShutdown();
+    }
+
+    private final class Task implements ScheduledFuture<Object> {
+
+        private final Runnable command;
+        private final long due;
+        private final long order;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        Task(Runnable command, long due, long order) {
+            this.command = command;
+            this.due = due;
+            this.order = order;
+        }
+
+        void run() {
+            if (!cancelled) {
+                command.run();
+                done = true;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(due - time.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            Task task = (Task) other;
+            int byDue = Long.compare(due - task.due, 0);
+            return byDue != 0 ? byDue : Long.compare(order, task.order);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            lock.lock();
+            try {
+                cancelled = !done;
+                tasks.remove(this);
+                return cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link TimeSource} that only moves when told to. It starts at the current
+ * system time, so it can be used with fixtures created from the system clock,
+ * e.g. the expiry dates of {@link LicenseServerStandIn#withExampleFixtures()}.
+ */
+final class ManualTimeSource implements TimeSource {
+
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong elapsedNanos = new AtomicLong();
+
+    @Override
+    public long currentTimeMillis() {
+        return startMillis + elapsedNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public long nanoTime() {
+        return startNanos + elapsedNanos.get();
+    }
+
+    /**
+     * Moves time forward.
+     *
+     * @param duration time to add
+     * @return this time source
+     */
+    ManualTimeSource advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("time cannot go back: " + duration);
+        }
+        elapsedNanos.addAndGet(duration.toNanos());
+        return this;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class NegativeCachingLicenseClientTest {
+
+    @Test
+    @DisplayName("Not Found, Disabled and Expired Keys Answered Locally")
+    void negative01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        NegativeCachingLicenseClient client = new NegativeCachingLicenseClient(new StandInLicenseClient(server, settings.build()), Duration.ofMinutes(5), 100);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(LicenseCodes.NOT_FOUND, client.validate(LicenseFixtures.KEY_NOT_FOUND).code());
+            Assertions.assertEquals(LicenseCodes.DISABLED, client.validate(LicenseFixtures.KEY_DISABLED).code());
+            Assertions.assertEquals(LicenseCodes.EXPIRED, client.validate(LicenseFixtures.KEY_EXPIRED).code());
+        }
+        Assertions.assertEquals(3, server.requestCount());
+
+        Assertions.assertEquals(LicenseCodes.MAX_USAGE_REACHED, client.validate(LicenseFixtures.KEY_MAX_USAGE_REACHED).code());
+        Assertions.assertEquals(LicenseCodes.MAX_USAGE_REACHED, client.validate(LicenseFixtures.KEY_MAX_USAGE_REACHED).code());
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+        Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(7, server.requestCount()),
+                () -> Assertions.assertEquals(3, client.size()),
+                () -> Assertions.assertTrue(client.status().valid())
+        );
+
+        client.clear();
+        client.validate(LicenseFixtures.KEY_NOT_FOUND);
+        Assertions.assertEquals(8, server.requestCount());
+    }
+
+    @Test
+    @DisplayName("Cached Results Expire")
+    void negative02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        NegativeCachingLicenseClient client = new NegativeCachingLicenseClient(new StandInLicenseClient(server, settings.build()), Duration.ofMinutes(5), 100, time);
+
+        client.validate(LicenseFixtures.KEY_DISABLED);
+        time.advance(Duration.ofMinutes(4));
+        client.validate(LicenseFixtures.KEY_DISABLED);
+        Assertions.assertEquals(1, server.requestCount());
+
+        time.advance(Duration.ofMinutes(1));
+        client.validate(LicenseFixtures.KEY_DISABLED);
+        Assertions.assertEquals(2, server.requestCount());
+    }
+
+    @Test
+    @DisplayName("Cache Size Bounded")
+    void negative03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        NegativeCachingLicenseClient client = new NegativeCachingLicenseClient(new StandInLicenseClient(server, settings.build()), Duration.ofMinutes(5), 16);
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(LicenseCodes.NOT_FOUND, client.validate(String.format("UNKNOWN-KEY-%04d", i)).code());
+            Assertions.assertTrue(client.size() <= 16, "size " + client.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Retry Storm Sends One Request")
+    void negative04(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException, ExecutionException {
+        server.latency(Duration.ofMillis(100));
+        NegativeCachingLicenseClient client = new NegativeCachingLicenseClient(new StandInLicenseClient(server, settings.build()), Duration.ofMinutes(5), 100);
+
+        List<Future<LicenseSnapshot>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> client.validate(LicenseFixtures.KEY_EXPIRED)));
+            }
+        }
+
+        for (Future<LicenseSnapshot> result : results) {
+            Assertions.assertEquals(LicenseCodes.EXPIRED, result.get().code());
+        }
+        Assertions.assertEquals(1, server.requestCount());
+    }
+}
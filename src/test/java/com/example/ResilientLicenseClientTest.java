@@ -0,0 +1,188 @@
+package com.example;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class ResilientLicenseClientTest {
+
+    @Test
+    @DisplayName("Slow Call Abandoned at Deadline")
+    void resilient01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        server.latency(Duration.ofSeconds(5));
+        try (ResilientLicenseClient client = ResilientLicenseClient.builder(new StandInLicenseClient(server, settings.build()))
+                .deadline(Duration.ofMillis(200))
+                .build()) {
+            UncheckedIOException ex = Assertions.assertThrows(UncheckedIOException.class, () -> client.validate(LicenseFixtures.KEY_VALID_NODELOCKED));
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertInstanceOf(InterruptedIOException.class, ex.getCause()),
+                    () -> Assertions.assertEquals(ResilientLicenseClient.State.CLOSED, client.state())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Open Breaker Serves Last Known Status")
+    void resilient02(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        try (ResilientLicenseClient client = ResilientLicenseClient.builder(new StandInLicenseClient(server, settings.build()))
+                .breaker(3, Duration.ofMinutes(5))
+                .build()) {
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_FLOATING).valid());
+
+            server.errorRate(1);
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertThrows(UncheckedIOException.class, client::validate);
+            }
+            long requests = server.requestCount();
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(ResilientLicenseClient.State.OPEN, client.state()),
+                    () -> Assertions.assertTrue(client.validate().valid()),
+                    () -> Assertions.assertThrows(UncheckedIOException.class, () -> client.validate(LicenseFixtures.KEY_VALID_FLOATING)),
+                    () -> Assertions.assertThrows(UncheckedIOException.class, client::invalidate),
+                    () -> Assertions.assertEquals(requests, server.requestCount())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Breaker Closes After Successful Trial Call")
+    void resilient03(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        try (ResilientLicenseClient client = ResilientLicenseClient.builder(new StandInLicenseClient(server, settings.build()))
+                .deadline(Duration.ofSeconds(10))
+                .breaker(1, Duration.ofSeconds(30))
+                .timeSource(time)
+                .build()) {
+            client.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+            server.errorRate(1);
+            Assertions.assertThrows(UncheckedIOException.class, client::validate);
+            Assertions.assertEquals(ResilientLicenseClient.State.OPEN, client.state());
+
+            long requests = server.requestCount();
+            time.advance(Duration.ofSeconds(29));
+            Assertions.assertTrue(client.validate().valid(), "last status while open");
+            Assertions.assertEquals(requests, server.requestCount());
+
+            time.advance(Duration.ofSeconds(1));
+            Assertions.assertThrows(UncheckedIOException.class, client::validate);
+            Assertions.assertEquals(ResilientLicenseClient.State.OPEN, client.state());
+
+            time.advance(Duration.ofSeconds(30));
+            server.errorRate(0);
+            Assertions.assertTrue(client.validate().valid());
+            Assertions.assertEquals(ResilientLicenseClient.State.CLOSED, client.state());
+        }
+    }
+
+    @Test
+    @DisplayName("Slow Heartbeat Hedged With Second Request")
+    void resilient04(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        StandInLicenseClient standIn = new StandInLicenseClient(server, settings.build());
+        try (ResilientLicenseClient client = ResilientLicenseClient.builder(standIn)
+                .deadline(Duration.ofSeconds(30))
+                .hedge(99)
+                .build()) {
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+            for (int i = 0; i < ResilientLicenseClient.HEDGE_MIN_SAMPLES; i++) {
+                client.validate();
+            }
+
+            long requests = server.requestCount();
+            server.stall(Duration.ofSeconds(20));
+            long start = System.nanoTime();
+            Assertions.assertTrue(client.validate().valid());
+            long hedged = System.nanoTime() - start;
+            Assertions.assertEquals(requests + 2, server.requestCount());
+            for (int i = 0; i < 100 && client.abandonedCalls() > 0; i++) {
+                Thread.sleep(100);
+            }
+
+            // activations are not sent twice
+            server.stall(Duration.ofMillis(500));
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(hedged < Duration.ofSeconds(10).toNanos(), hedged + " ns"),
+                    () -> Assertions.assertEquals(requests + 3, server.requestCount())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("No Call Started While Abandoned Call Runs")
+    void resilient05(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        StandInLicenseClient standIn = new StandInLicenseClient(server, settings.build());
+        CountDownLatch release = new CountDownLatch(1);
+        // like the licensing library, ignores interrupts
+        LicenseClient uninterruptible = new LicenseClient() {
+            @Override
+            public LicenseSnapshot validate(String licenseKey) {
+                return standIn.validate(licenseKey);
+            }
+
+            @Override
+            public LicenseSnapshot validate() {
+                return standIn.validate();
+            }
+
+            @Override
+            public LicenseSnapshot invalidate() {
+                boolean interrupted = false;
+                while (true) {
+                    try {
+                        release.await();
+                        break;
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+                try {
+                    return standIn.invalidate();
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public LicenseSnapshot status() {
+                return standIn.status();
+            }
+        };
+
+        try (ResilientLicenseClient client = ResilientLicenseClient.builder(uninterruptible)
+                .deadline(Duration.ofSeconds(1))
+                .build()) {
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+            Assertions.assertThrows(UncheckedIOException.class, client::invalidate);
+            Assertions.assertEquals(1, client.abandonedCalls());
+
+            long requests = server.requestCount();
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertThrows(UncheckedIOException.class, () -> client.validate(LicenseFixtures.KEY_VALID_NODELOCKED)),
+                    () -> Assertions.assertTrue(client.validate().valid(), "last status"),
+                    () -> Assertions.assertEquals(requests, server.requestCount())
+            );
+
+            release.countDown();
+            for (int i = 0; i < 100 && client.abandonedCalls() > 0; i++) {
+                Thread.sleep(100);
+            }
+            Assertions.assertFalse(client.status().valid(), "late invalidation published");
+            Assertions.assertTrue(client.validate(LicenseFixtures.KEY_VALID_NODELOCKED).valid());
+            Assertions.assertEquals(1, server.usageCount(LicenseFixtures.KEY_VALID_NODELOCKED));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link LicenseClient} talking to a {@link LicenseServerStandIn}. The signed
+ * {@link LicenseData} of a valid license is saved in the {@link LicenseStorage}
+ * of the settings, the same way the library saves the license file, so that
+ * {@link #validate()} and {@link #invalidate()} work without the key, also
+ * from another client built with the same storage.
+ */
+final class StandInLicenseClient implements LicenseClient {
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    /**
+     * Fingerprint used when the settings have no custom fingerprint.
+     */
+    static final String DEFAULT_FINGERPRINT = "STAND-IN-" + System.getProperty("user.name");
+
+    private final URI server;
+    private final LicenseSettings settings;
+    private final LicenseStorage storage;
+
+    private volatile LicenseSnapshot status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+
+    StandInLicenseClient(URI server, LicenseSettings settings) {
+        this.server = server;
+        this.settings = settings;
+        this.storage = settings.storage();
+    }
+
+    StandInLicenseClient(LicenseServerStandIn standIn, LicenseSettings settings) {
+        this(standIn.uri(), settings);
+    }
+
+    String fingerprint() {
+        return settings.customFingerprint() != null ? settings.customFingerprint() : DEFAULT_FINGERPRINT;
+    }
+
+    @Override
+    public LicenseSnapshot validate(String licenseKey) {
+        return status = send("/validate", licenseKey, fingerprint());
+    }
+
+    @Override
+    public LicenseSnapshot validate() {
+        LicenseData current = load();
+        if (current == null) {
+            return status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+        }
+        if (!current.fingerprint().equals(fingerprint())) {
+            return status = LicenseSnapshot.invalid(LicenseCodes.FINGERPRINT_MISMATCH, System.currentTimeMillis());
+        }
+        return status = send("/validate", current.licenseKey(), current.fingerprint());
+    }
+
+    @Override
+    public LicenseSnapshot invalidate() {
+        LicenseData current = load();
+        if (current != null) {
+            send("/invalidate", current.licenseKey(), current.fingerprint());
+            delete();
+        }
+        return status = LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, System.currentTimeMillis());
+    }
+
+    @Override
+    public LicenseSnapshot status() {
+        return status;
+    }
+
+    private LicenseData load() {
+        try {
+            byte[] data = storage.read();
+            return data != null ? LicenseData.decode(data) : null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void save(String license) {
+        try {
+            storage.write(Base64.getDecoder().decode(license));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void delete() {
+        try {
+            storage.delete();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private LicenseSnapshot send(String path, String licenseKey, String fingerprint) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("product", settings.productHash());
+        form.put("key", licenseKey);
+        form.put("fingerprint", fingerprint);
+        settings.features().forEach((key, value) -> form.put("feature." + key, String.valueOf(value)));
+
+        HttpRequest request = HttpRequest.newBuilder(server.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(LicenseServerStandIn.encode(form)))
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = HTTP.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("interrupted while waiting for license server"));
+        }
+        if (response.statusCode() != 200) {
+            throw new UncheckedIOException(new IOException("license server returned HTTP " + response.statusCode()));
+        }
+        Map<String, String> result = LicenseServerStandIn.decode(response.body());
+        String license = result.get("license");
+        if (license != null) {
+            save(license);
+        }
+        return toSnapshot(result);
+    }
+
+    private static LicenseSnapshot toSnapshot(Map<String, String> response) {
+        Map<String, String> features = new LinkedHashMap<>();
+        response.forEach((key, value) -> {
+            if (key.startsWith("feature.")) {
+                features.put(key.substring("feature.".length()), value);
+            }
+        });
+        String expires = response.get("expires");
+        return new LicenseSnapshot(
+                Boolean.parseBoolean(response.get("valid")),
+                Integer.parseInt(response.get("code")),
+                features,
+                expires != null ? Long.parseLong(expires) : LicenseSnapshot.NO_EXPIRY,
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,340 @@
+package com.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hammers a {@link CachedLicenseStatus} the way an application does: reader
+ * threads check the status and features on every request while writer
+ * threads revalidate, validate a key and invalidate concurrently.
+ *
+ * <p>
+ * Every snapshot is derived from one sequence number taken under the write
+ * lock, so readers can detect publications seen out of order, and features
+ * read right after a snapshot that belong to an earlier validation than the
+ * snapshot. Both happen if the snapshot and its compiled features are ever
+ * published separately. A snapshot is immutable, so torn snapshots (fields of
+ * different validations) can only come from the client and are checked as a
+ * sanity check of the fixture. A sampler thread records which locks threads
+ * wait for and where, to find contention hot spots.</p>
+ */
+final class StatusStress {
+
+    /**
+     * Outcome of one run.
+     *
+     * @param readers reader threads
+     * @param writers writer threads
+     * @param duration run time
+     * @param reads status reads
+     * @param writes validations and invalidations
+     * @param torn snapshots whose fields do not belong together
+     * @param outOfOrder snapshots or features older than ones the same reader
+     * saw before
+     * @param mixed features read right after a snapshot that belong to an
+     * earlier validation than the snapshot
+     * @param getterTears reads of {@link CachedLicenseStatus#isValid()} and
+     * {@link CachedLicenseStatus#code()} that disagree because a publication
+     * came in between, showing why checks should use one snapshot; expected
+     * under concurrent writes, so only reported
+     * @param readerWaits times readers blocked or waited
+     * @param hotSpots sampled waits by lock and waiting code, most frequent
+     * first
+     * @param examples first torn or out of order snapshots
+     */
+    record Result(int readers, int writers, Duration duration, long reads, long writes, long torn, long outOfOrder,
+            long mixed, long getterTears, long readerWaits, Map<String, Long> hotSpots, List<String> examples) {
+
+        /**
+         * @return status reads per second
+         */
+        double readsPerSecond() {
+            return reads * 1e9 / duration.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%7d %7d %14.0f %10.0f %6d %10d %6d %12d %12d",
+                    readers, writers, readsPerSecond(), writes * 1e9 / duration.toNanos(), torn, outOfOrder, mixed, getterTears,
+                    readerWaits);
+        }
+    }
+
+    private static final FeatureSchema SCHEMA = FeatureSchema.of("sequence");
+    private static final int SEQUENCE = SCHEMA.id("sequence");
+    private static final long VALIDITY = 1_000;
+
+    private final Duration hold;
+
+    /**
+     * @param hold time each validation or invalidation takes inside the
+     * client, while the writer holds the write lock
+     */
+    StatusStress(Duration hold) {
+        this.hold = hold;
+    }
+
+    /**
+     * @param readers reader threads
+     * @param writers writer threads, cycling through revalidation, validation
+     * of a key and invalidation
+     * @param duration run time
+     * @return result
+     */
+    Result run(int readers, int writers, Duration duration) throws InterruptedException {
+        CachedLicenseStatus status = new CachedLicenseStatus(new SequencedClient(hold), SCHEMA);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean contentionMonitoring = threads.isThreadContentionMonitoringSupported() && threads.isThreadContentionMonitoringEnabled();
+        if (threads.isThreadContentionMonitoringSupported()) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LongAdder torn = new LongAdder();
+        LongAdder outOfOrder = new LongAdder();
+        LongAdder mixed = new LongAdder();
+        LongAdder getterTears = new LongAdder();
+        LongAdder readerWaits = new LongAdder();
+        Map<String, LongAdder> hotSpots = new ConcurrentHashMap<>();
+        ConcurrentLinkedQueue<String> examples = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(readers + writers);
+        long[] ids = new long[readers + writers];
+        List<Thread> started = new ArrayList<>();
+        AtomicLong deadline = new AtomicLong();
+
+        for (int i = 0; i < readers; i++) {
+            Thread reader = Thread.ofPlatform().name("stress-reader-" + i).daemon().unstarted(() -> {
+                await(start);
+                ThreadInfo before = threads.getThreadInfo(Thread.currentThread().threadId());
+                long count = 0;
+                long lastSequence = -1;
+                long lastFeature = -1;
+                while (System.nanoTime() - deadline.get() < 0) {
+                    LicenseSnapshot snapshot = status.snapshot();
+                    if (!consistent(snapshot)) {
+                        torn.increment();
+                        example(examples, "torn " + snapshot);
+                    }
+                    if (snapshot.checkedAt() < lastSequence) {
+                        outOfOrder.increment();
+                        example(examples, "snapshot " + snapshot.checkedAt() + " after " + lastSequence);
+                    }
+                    lastSequence = snapshot.checkedAt();
+
+                    FeatureIndex features = status.features();
+                    if (features.has(SEQUENCE)) {
+                        long sequence = (long) features.limit(SEQUENCE);
+                        if (sequence < snapshot.checkedAt()) {
+                            mixed.increment();
+                            example(examples, "features " + sequence + " read after snapshot " + snapshot.checkedAt());
+                        }
+                        if (sequence < lastFeature) {
+                            outOfOrder.increment();
+                            example(examples, "features " + sequence + " after " + lastFeature);
+                        }
+                        lastFeature = sequence;
+                    }
+
+                    if (status.isValid() != (status.code() == LicenseCodes.VALID)) {
+                        getterTears.increment();
+                    }
+                    count++;
+                }
+                reads.add(count);
+                ThreadInfo after = threads.getThreadInfo(Thread.currentThread().threadId());
+                readerWaits.add(after.getBlockedCount() - before.getBlockedCount() + after.getWaitedCount() - before.getWaitedCount());
+                done.countDown();
+            });
+            ids[i] = reader.threadId();
+            started.add(reader);
+        }
+        for (int i = 0; i < writers; i++) {
+            int operation = i % 3;
+            Thread writer = Thread.ofPlatform().name("stress-writer-" + i).daemon().unstarted(() -> {
+                await(start);
+                long count = 0;
+                while (System.nanoTime() - deadline.get() < 0) {
+                    switch (operation) {
+                        case 0 -> status.validate();
+                        case 1 -> status.invalidate();
+                        default -> status.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+                    }
+                    count++;
+                }
+                writes.add(count);
+                done.countDown();
+            });
+            ids[readers + i] = writer.threadId();
+            started.add(writer);
+        }
+
+        started.forEach(Thread::start);
+        long begin = System.nanoTime();
+        deadline.set(begin + duration.toNanos());
+        start.countDown();
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            sample(threads, ids, hotSpots);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+        threads.setThreadContentionMonitoringEnabled(contentionMonitoring);
+
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        hotSpots.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> e) -> e.getValue().sum()).reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue().sum()));
+        return new Result(readers, writers, elapsed, reads.sum(), writes.sum(), torn.sum(), outOfOrder.sum(),
+                mixed.sum(), getterTears.sum(), readerWaits.sum(), sorted, List.copyOf(examples));
+    }
+
+    /**
+     * @param duration run time of each step
+     * @param writers writer threads
+     * @param readers reader threads of each step
+     * @return results in the order of the reader counts
+     */
+    List<Result> sweep(Duration duration, int writers, int... readers) throws InterruptedException {
+        List<Result> results = new ArrayList<>();
+        for (int count : readers) {
+            results.add(run(count, writers, duration));
+        }
+        return results;
+    }
+
+    /**
+     * @param results results of a sweep
+     * @return table of the results, with read throughput relative to the first
+     */
+    static String report(List<Result> results) {
+        StringBuilder sb = new StringBuilder(String.format("%7s %7s %14s %10s %6s %10s %6s %12s %12s %8s%n",
+                "readers", "writers", "reads/s", "writes/s", "torn", "outOfOrder", "mixed", "getterTears", "readerWaits", "speedup"));
+        double base = results.isEmpty() ? 1 : results.get(0).readsPerSecond();
+        for (Result result : results) {
+            sb.append(result).append(String.format(Locale.ROOT, " %8.2f%n", result.readsPerSecond() / base));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param result result of a run
+     * @param limit maximum number of hot spots
+     * @return most frequent sampled waits
+     */
+    static String hotSpots(Result result, int limit) {
+        StringBuilder sb = new StringBuilder("samples  lock <- waiting code\n");
+        result.hotSpots().entrySet().stream().limit(limit)
+                .forEach(e -> sb.append(String.format("%7d  %s%n", e.getValue(), e.getKey())));
+        return sb.toString();
+    }
+
+    /**
+     * A snapshot is consistent if all of its fields come from the same
+     * validation of {@link SequencedClient}.
+     */
+    private static boolean consistent(LicenseSnapshot snapshot) {
+        if (snapshot.valid()) {
+            return snapshot.code() == LicenseCodes.VALID
+                    && Long.toString(snapshot.checkedAt()).equals(snapshot.feature("sequence"))
+                    && snapshot.expiresAt() == snapshot.checkedAt() + VALIDITY;
+        }
+        return snapshot.code() == LicenseCodes.NOT_VALIDATED
+                && snapshot.features().isEmpty()
+                && snapshot.expiresAt() == LicenseSnapshot.NO_EXPIRY;
+    }
+
+    private static void sample(ThreadMXBean threads, long[] ids, Map<String, LongAdder> hotSpots) {
+        for (ThreadInfo info : threads.getThreadInfo(ids, 16)) {
+            if (info == null || info.getLockName() == null) {
+                continue;
+            }
+            String lock = info.getLockName().replaceAll("@[0-9a-f]+$", "");
+            String where = "?";
+            for (StackTraceElement frame : info.getStackTrace()) {
+                if (frame.getClassName().startsWith("com.example.")) {
+                    where = frame.getClassName().substring("com.example.".length()) + "." + frame.getMethodName();
+                    break;
+                }
+            }
+            if (where.equals("StatusStress.await")) {
+                // not started yet
+                continue;
+            }
+            String role = info.getThreadName().startsWith("stress-reader") ? "reader" : "writer";
+            hotSpots.computeIfAbsent(lock + " <- " + role + " in " + where, key -> new LongAdder()).increment();
+        }
+    }
+
+    private static void example(ConcurrentLinkedQueue<String> examples, String example) {
+        if (examples.size() < 10) {
+            examples.add(example);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Derives every field of a snapshot from one sequence number, so that
+     * fields of different validations cannot be mistaken for each other.
+     */
+    private static final class SequencedClient implements LicenseClient {
+
+        private final AtomicLong sequence = new AtomicLong();
+        private final long holdNanos;
+
+        SequencedClient(Duration hold) {
+            this.holdNanos = hold.toNanos();
+        }
+
+        @Override
+        public LicenseSnapshot validate(String licenseKey) {
+            return next(true);
+        }
+
+        @Override
+        public LicenseSnapshot validate() {
+            return next(true);
+        }
+
+        @Override
+        public LicenseSnapshot invalidate() {
+            return next(false);
+        }
+
+        @Override
+        public LicenseSnapshot status() {
+            return LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, 0);
+        }
+
+        private LicenseSnapshot next(boolean valid) {
+            if (holdNanos > 0) {
+                LockSupport.parkNanos(holdNanos);
+            }
+            long n = sequence.incrementAndGet();
+            return valid
+                    ? new LicenseSnapshot(true, LicenseCodes.VALID, Map.of("sequence", Long.toString(n)), n + VALIDITY, n)
+                    : LicenseSnapshot.invalid(LicenseCodes.NOT_VALIDATED, n);
+        }
+    }
+}
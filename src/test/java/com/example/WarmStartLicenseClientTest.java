@@ -0,0 +1,228 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(LicenseIsolation.class)
+class WarmStartLicenseClientTest {
+
+    private static final Duration FRESHNESS = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("License Data Signature Covers All Fields")
+    void data01() throws GeneralSecurityException, IOException {
+        KeyPair key = KeyPairGenerator.getInstance(LicenseData.ALGORITHM).generateKeyPair();
+        LicenseSnapshot snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, LicenseFixtures.FEATURES, LicenseSnapshot.NO_EXPIRY, 1000);
+        LicenseData data = LicenseData.sign(LicenseFixtures.KEY_FEATURES, LicenseFixtures.PRODUCT_HASH1, "TEST-FINGERPRINT", snapshot, 1000, key.getPrivate());
+
+        byte[] encoded = data.encode();
+        byte[] tampered = encoded.clone();
+        tampered[tampered.length / 2] ^= 1;
+
+        Assertions.assertAll(
+                "",
+                () -> Assertions.assertEquals(data, LicenseData.decode(encoded)),
+                () -> Assertions.assertTrue(LicenseData.decode(encoded).verify(key.getPublic())),
+                () -> Assertions.assertFalse(LicenseData.decode(tampered).verify(key.getPublic())),
+                () -> Assertions.assertFalse(data.verify(KeyPairGenerator.getInstance(LicenseData.ALGORITHM).generateKeyPair().getPublic()))
+        );
+    }
+
+    @Test
+    @DisplayName("Fresh License Data Valid Without License Server")
+    void warm01(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseSettings built = settings.build();
+        new StandInLicenseClient(server, built).validate(LicenseFixtures.KEY_FEATURES);
+        server.errorRate(1);
+
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(client, built, server.publicKey(), client::fingerprint, FRESHNESS)) {
+            LicenseSnapshot snapshot = warm.validate();
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(snapshot.valid()),
+                    () -> Assertions.assertEquals("anything1", snapshot.feature("AnyFeatureKey"))
+            );
+
+            CompletionException failure = Assertions.assertThrows(CompletionException.class, () -> warm.confirmation().join());
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertInstanceOf(UncheckedIOException.class, failure.getCause()),
+                    () -> Assertions.assertTrue(warm.status().valid())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("License Data Confirmed in Background")
+    void warm02(LicenseServerStandIn server, LicenseSettings.Builder settings) throws IOException {
+        LicenseSettings built = settings.build();
+        new StandInLicenseClient(server, built).validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        long issuedAt = LicenseData.decode(built.storage().read()).issuedAt();
+        long requests = server.requestCount();
+
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(client, built, server.publicKey(), client::fingerprint, FRESHNESS)) {
+            Assertions.assertTrue(warm.validate().valid());
+            Assertions.assertTrue(warm.confirmation().join().valid());
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertEquals(requests + 1, server.requestCount()),
+                    () -> Assertions.assertTrue(LicenseData.decode(built.storage().read()).issuedAt() >= issuedAt)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Stale, Foreign or Mismatched License Data Goes to License Server")
+    void warm03(LicenseServerStandIn server, LicenseSettings.Builder settings) throws GeneralSecurityException, IOException {
+        KeyPair key = KeyPairGenerator.getInstance(LicenseData.ALGORITHM).generateKeyPair();
+        LicenseSettings built = settings.build();
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        StandInLicenseClient other = new StandInLicenseClient(server, settings.customFingerprint("ANOTHER-DEVICE-FINGERPRINT").build());
+        LicenseSnapshot snapshot = new LicenseSnapshot(true, LicenseCodes.VALID, LicenseFixtures.FEATURES, LicenseSnapshot.NO_EXPIRY, System.currentTimeMillis());
+        long stale = System.currentTimeMillis() - FRESHNESS.toMillis() - 1;
+        server.errorRate(1);
+
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(client, built, key.getPublic(), client::fingerprint, FRESHNESS);
+                WarmStartLicenseClient foreign = new WarmStartLicenseClient(client, built, server.publicKey(), client::fingerprint, FRESHNESS);
+                WarmStartLicenseClient moved = new WarmStartLicenseClient(other, built, key.getPublic(), other::fingerprint, FRESHNESS)) {
+            built.storage().write(LicenseData.sign(LicenseFixtures.KEY_FEATURES, LicenseFixtures.PRODUCT_HASH1, client.fingerprint(), snapshot, stale, key.getPrivate()).encode());
+            Assertions.assertThrows(UncheckedIOException.class, warm::validate);
+
+            built.storage().write(LicenseData.sign(LicenseFixtures.KEY_FEATURES, LicenseFixtures.PRODUCT_HASH1, client.fingerprint(), snapshot, System.currentTimeMillis(), key.getPrivate()).encode());
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertThrows(UncheckedIOException.class, foreign::validate),
+                    () -> Assertions.assertEquals(LicenseCodes.FINGERPRINT_MISMATCH, moved.validate().code()),
+                    () -> Assertions.assertTrue(warm.validate().valid())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Rejected Confirmation Disables Warm Start")
+    void warm04(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        LicenseSettings built = settings.build();
+        new StandInLicenseClient(server, built).validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        server.product(LicenseFixtures.PRODUCT_HASH1, false);
+
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(client, built, server.publicKey(), client::fingerprint, FRESHNESS)) {
+            Assertions.assertTrue(warm.validate().valid());
+            Assertions.assertEquals(LicenseCodes.DISABLED, warm.confirmation().join().code());
+
+            long requests = server.requestCount();
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertFalse(warm.status().valid()),
+                    () -> Assertions.assertEquals(LicenseCodes.DISABLED, warm.validate().code()),
+                    () -> Assertions.assertEquals(requests + 1, server.requestCount())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Saved License Data Trusted Within Freshness Window Only")
+    void warm05(LicenseServerStandIn server, LicenseSettings.Builder settings) {
+        ManualTimeSource time = new ManualTimeSource();
+        LicenseSettings built = settings.build();
+        new StandInLicenseClient(server.time(time), built).validate(LicenseFixtures.KEY_FEATURES);
+        server.errorRate(1);
+
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(client, built, server.publicKey(), client::fingerprint, FRESHNESS, null, time)) {
+            time.advance(FRESHNESS);
+            Assertions.assertTrue(warm.validate().valid());
+
+            time.advance(Duration.ofMillis(1));
+            Assertions.assertThrows(UncheckedIOException.class, warm::validate, "stale, validated with the server");
+        }
+    }
+
+    @Test
+    @DisplayName("Invalidate Discards Running Confirmation")
+    void warm06(LicenseServerStandIn server, LicenseSettings.Builder settings) throws InterruptedException {
+        LicenseSettings built = settings.build();
+        StandInLicenseClient client = new StandInLicenseClient(server, built);
+        client.validate(LicenseFixtures.KEY_VALID_NODELOCKED);
+        HeldLicenseClient held = new HeldLicenseClient(client);
+
+        try (WarmStartLicenseClient warm = new WarmStartLicenseClient(held, built, server.publicKey(), client::fingerprint, FRESHNESS)) {
+            Assertions.assertTrue(warm.validate().valid());
+            held.started.await();
+
+            LicenseSnapshot invalidated = warm.invalidate();
+            held.release.countDown();
+            held.finished.await();
+
+            Assertions.assertAll(
+                    "",
+                    () -> Assertions.assertTrue(warm.confirmation().isCancelled()),
+                    () -> Assertions.assertSame(invalidated, warm.status())
+            );
+        }
+    }
+
+    /**
+     * Holds validations until released, ignoring interrupts, so their result
+     * arrives late.
+     */
+    private static final class HeldLicenseClient implements LicenseClient {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        private final LicenseClient client;
+
+        HeldLicenseClient(LicenseClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public LicenseSnapshot validate(String licenseKey) {
+            return client.validate(licenseKey);
+        }
+
+        @Override
+        public LicenseSnapshot validate() {
+            started.countDown();
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    // keep holding, the result must arrive after invalidate()
+                }
+            }
+            try {
+                return client.validate();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        @Override
+        public LicenseSnapshot invalidate() {
+            return client.invalidate();
+        }
+
+        @Override
+        public LicenseSnapshot status() {
+            return client.status();
+        }
+    }
+}